@@ -0,0 +1,71 @@
+package com.example.aidevopsdemo.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Configuration for running on virtual threads (spring.threads.virtual.enabled=true)
+ * Blocking OpenAI completions and JDBC calls park a virtual thread instead of
+ * occupying a Tomcat worker. Needs a Java 21+ runtime; older JVMs keep the defaults.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    /**
+     * Replaces Tomcat's worker pool with a thread-per-request virtual executor
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        Optional<ThreadFactory> factory = virtualThreadFactory("http-vt-");
+        if (factory.isEmpty()) {
+            logger.warn("Virtual threads requested but not supported by this JVM; keeping the Tomcat thread pool");
+            return protocolHandler -> { };
+        }
+        logger.info("Tomcat requests will run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(new SimpleAsyncTaskExecutor(factory.get()));
+    }
+
+    /**
+     * Runs @Scheduled work on virtual threads; Spring shuts the pool down on context close
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(
+            @Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.setDaemon(true);
+        virtualThreadFactory("scheduling-vt-").ifPresent(scheduler::setThreadFactory);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+
+    /**
+     * Thread.ofVirtual().name(prefix, 0).factory(), looked up reflectively since we compile for Java 17
+     */
+    static Optional<ThreadFactory> virtualThreadFactory(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
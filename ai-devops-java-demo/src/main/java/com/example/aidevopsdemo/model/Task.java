@@ -4,12 +4,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
 /**
  * Entity representing a task in the application
  */
 @Entity
+@Table(indexes = @Index(name = "idx_task_created_at", columnList = "createdAt"))
 public class Task {
 
     @Id
@@ -77,6 +80,10 @@ public class Task {
         return createdAt;
     }
     
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
     public LocalDateTime getCompletedAt() {
         return completedAt;
     }
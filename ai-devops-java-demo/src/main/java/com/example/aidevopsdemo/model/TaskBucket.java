@@ -0,0 +1,25 @@
+package com.example.aidevopsdemo.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of tasks created in one time bucket starting at the given instant
+ */
+public class TaskBucket {
+
+    private final LocalDateTime start;
+    private final long count;
+
+    public TaskBucket(LocalDateTime start, long count) {
+        this.start = start;
+        this.count = count;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
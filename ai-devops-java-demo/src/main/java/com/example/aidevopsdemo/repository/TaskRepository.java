@@ -1,11 +1,19 @@
 package com.example.aidevopsdemo.repository;
 
 import com.example.aidevopsdemo.model.Task;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository for Task entity operations
@@ -15,5 +23,31 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     
     List<Task> findByCompleted(boolean completed);
     
-    List<Task> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+    /**
+     * Streams tasks created in [start, end) in creation order over a JDBC cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t where t.createdAt >= :start and t.createdAt < :end order by t.createdAt, t.id")
+    Stream<Task> streamByCreatedAtRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Tasks created per day in [start, end) as (LocalDate, Long) rows
+     */
+    @Query("select cast(t.createdAt as LocalDate), count(t) from Task t "
+            + "where t.createdAt >= :start and t.createdAt < :end "
+            + "group by cast(t.createdAt as LocalDate) order by cast(t.createdAt as LocalDate)")
+    List<Object[]> countCreatedPerDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Tasks created per hour in [start, end) as (LocalDate, Integer hour, Long) rows
+     */
+    @Query("select cast(t.createdAt as LocalDate), extract(hour from t.createdAt), count(t) from Task t "
+            + "where t.createdAt >= :start and t.createdAt < :end "
+            + "group by cast(t.createdAt as LocalDate), extract(hour from t.createdAt) "
+            + "order by cast(t.createdAt as LocalDate), extract(hour from t.createdAt)")
+    List<Object[]> countCreatedPerHour(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
\ No newline at end of file
@@ -1,13 +1,22 @@
 package com.example.aidevopsdemo.service;
 
 import com.example.aidevopsdemo.model.Task;
+import com.example.aidevopsdemo.model.TaskBucket;
 import com.example.aidevopsdemo.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service for Task-related business logic
@@ -17,6 +26,9 @@ public class TaskService {
 
     private final TaskRepository taskRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public TaskService(TaskRepository taskRepository) {
         this.taskRepository = taskRepository;
@@ -69,4 +81,39 @@ public class TaskService {
     public List<Task> findTasksByCompletionStatus(boolean completed) {
         return taskRepository.findByCompleted(completed);
     }
-}
\ No newline at end of file
+
+    /**
+     * Hand every task created in [start, end) to the consumer in creation order.
+     * Rows come off a database cursor and are detached once consumed, so memory
+     * stays constant however long the range is.
+     */
+    @Transactional(readOnly = true)
+    public void streamTasksCreatedBetween(LocalDateTime start, LocalDateTime end, Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamByCreatedAtRange(start, end)) {
+            tasks.forEach(task -> {
+                consumer.accept(task);
+                entityManager.detach(task);
+            });
+        }
+    }
+
+    /**
+     * Count tasks created in [start, end) per day or per hour
+     */
+    public List<TaskBucket> countTasksCreatedPer(ChronoUnit unit, LocalDateTime start, LocalDateTime end) {
+        List<TaskBucket> buckets = new ArrayList<>();
+        if (unit == ChronoUnit.DAYS) {
+            for (Object[] row : taskRepository.countCreatedPerDay(start, end)) {
+                buckets.add(new TaskBucket(((LocalDate) row[0]).atStartOfDay(), ((Number) row[1]).longValue()));
+            }
+        } else if (unit == ChronoUnit.HOURS) {
+            for (Object[] row : taskRepository.countCreatedPerHour(start, end)) {
+                LocalDateTime bucketStart = ((LocalDate) row[0]).atStartOfDay().plusHours(((Number) row[1]).longValue());
+                buckets.add(new TaskBucket(bucketStart, ((Number) row[2]).longValue()));
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported bucket size: " + unit);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.aidevopsdemo.controller;
+
+import com.example.aidevopsdemo.model.Task;
+import com.example.aidevopsdemo.model.TaskBucket;
+import com.example.aidevopsdemo.service.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web layer tests for TaskController's histogram and export endpoints
+ */
+@WebMvcTest(TaskController.class)
+public class TaskControllerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 3, 10, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 3, 12, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private TaskService taskService;
+
+    @Test
+    public void testGetCreatedHistogram_ReturnsBuckets() throws Exception {
+        // Arrange
+        when(taskService.countTasksCreatedPer(ChronoUnit.HOURS, FROM, TO))
+                .thenReturn(List.of(new TaskBucket(FROM.plusHours(9), 3), new TaskBucket(FROM.plusHours(10), 1)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/created/histogram")
+                        .param("from", "2024-03-10T00:00:00")
+                        .param("to", "2024-03-12T00:00:00")
+                        .param("bucket", "HOURS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].start").value("2024-03-10T09:00:00"))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[1].count").value(1));
+    }
+
+    @Test
+    public void testGetCreatedHistogram_EmptyRange() throws Exception {
+        // Arrange
+        when(taskService.countTasksCreatedPer(ChronoUnit.DAYS, FROM, FROM)).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/created/histogram")
+                        .param("from", "2024-03-10T00:00:00")
+                        .param("to", "2024-03-10T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    public void testGetCreatedHistogram_UnsupportedBucket() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/created/histogram")
+                        .param("from", "2024-03-10T00:00:00")
+                        .param("to", "2024-03-12T00:00:00")
+                        .param("bucket", "MINUTES"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    public void testExportTasks_CsvEscapesSpecialCharacters() throws Exception {
+        // Arrange
+        Task plain = task(1L, "Plain", null, FROM.plusHours(1));
+        Task quoted = task(2L, "Say \"hi\", then leave", "line one\nline two", FROM.plusHours(2));
+        streamTasks(plain, quoted);
+
+        // Act
+        String body = export("csv");
+
+        // Assert
+        assertEquals("id,title,description,completed,createdAt,completedAt\n"
+                + "1,Plain,,false,2024-03-10T01:00:00,\n"
+                + "2,\"Say \"\"hi\"\", then leave\",\"line one\nline two\",false,2024-03-10T02:00:00,\n", body);
+    }
+
+    @Test
+    public void testExportTasks_NdjsonOneObjectPerLine() throws Exception {
+        // Arrange
+        streamTasks(task(1L, "First", "a", FROM.plusHours(1)), task(2L, "Second", "b", FROM.plusHours(2)));
+
+        // Act
+        String[] lines = export("ndjson").split("\n");
+
+        // Assert
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("First", first.get("title").asText());
+        assertEquals(2L, second.get("id").asLong());
+    }
+
+    @Test
+    public void testExportTasks_EmptyRangeWritesOnlyCsvHeader() throws Exception {
+        // Arrange
+        streamTasks();
+
+        // Act & Assert
+        assertEquals("id,title,description,completed,createdAt,completedAt\n", export("csv"));
+        assertEquals("", export("ndjson"));
+    }
+
+    @Test
+    public void testExportTasks_UnknownFormat() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/export")
+                        .param("from", "2024-03-10T00:00:00")
+                        .param("to", "2024-03-12T00:00:00")
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/tasks/export")
+                        .param("from", "2024-03-10T00:00:00")
+                        .param("to", "2024-03-12T00:00:00")
+                        .param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(
+                        "csv".equals(format) ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON))
+                .andReturn();
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamTasks(Task... tasks) {
+        doAnswer(invocation -> {
+            Consumer<Task> consumer = invocation.getArgument(2);
+            for (Task task : tasks) {
+                consumer.accept(task);
+            }
+            return null;
+        }).when(taskService).streamTasksCreatedBetween(eq(FROM), eq(TO), any(Consumer.class));
+    }
+
+    private static Task task(Long id, String title, String description, LocalDateTime createdAt) {
+        Task task = new Task(title, description);
+        task.setId(id);
+        task.setCreatedAt(createdAt);
+        return task;
+    }
+}
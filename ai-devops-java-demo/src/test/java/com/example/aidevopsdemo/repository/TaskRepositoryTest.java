@@ -0,0 +1,129 @@
+package com.example.aidevopsdemo.repository;
+
+import com.example.aidevopsdemo.model.Task;
+import com.example.aidevopsdemo.model.TaskBucket;
+import com.example.aidevopsdemo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the createdAt range queries behind the task histogram and export
+ */
+@DataJpaTest
+@Import(TaskService.class)
+public class TaskRepositoryTest {
+
+    private static final LocalDateTime DAY_START = LocalDateTime.of(2024, 3, 10, 0, 0);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    public void testCountCreatedPerDay_IncludesStartExcludesEnd() {
+        // Arrange
+        saveTaskCreatedAt("before", DAY_START.minusNanos(1000));
+        saveTaskCreatedAt("at start", DAY_START);
+        saveTaskCreatedAt("end of first day", DAY_START.plusDays(1).minusSeconds(1));
+        saveTaskCreatedAt("second day", DAY_START.plusDays(1));
+        saveTaskCreatedAt("at end", DAY_START.plusDays(2));
+
+        // Act
+        List<Object[]> rows = taskRepository.countCreatedPerDay(DAY_START, DAY_START.plusDays(2));
+
+        // Assert
+        assertEquals(2, rows.size());
+        assertEquals(LocalDate.of(2024, 3, 10), rows.get(0)[0]);
+        assertEquals(2L, ((Number) rows.get(0)[1]).longValue());
+        assertEquals(LocalDate.of(2024, 3, 11), rows.get(1)[0]);
+        assertEquals(1L, ((Number) rows.get(1)[1]).longValue());
+    }
+
+    @Test
+    public void testCountCreatedPerHour_SplitsOnTheHour() {
+        // Arrange
+        LocalDateTime tenAm = DAY_START.plusHours(10);
+        saveTaskCreatedAt("ten", tenAm);
+        saveTaskCreatedAt("just before eleven", tenAm.plusMinutes(59).plusSeconds(59));
+        saveTaskCreatedAt("eleven", tenAm.plusHours(1));
+        saveTaskCreatedAt("at end", tenAm.plusHours(3));
+
+        // Act
+        List<Object[]> rows = taskRepository.countCreatedPerHour(tenAm, tenAm.plusHours(3));
+
+        // Assert
+        assertEquals(2, rows.size());
+        assertEquals(10, ((Number) rows.get(0)[1]).intValue());
+        assertEquals(2L, ((Number) rows.get(0)[2]).longValue());
+        assertEquals(11, ((Number) rows.get(1)[1]).intValue());
+        assertEquals(1L, ((Number) rows.get(1)[2]).longValue());
+    }
+
+    @Test
+    public void testCountTasksCreatedPer_HourBucketsStartOnTheHour() {
+        // Arrange
+        saveTaskCreatedAt("late evening", DAY_START.plusHours(23).plusMinutes(30));
+        saveTaskCreatedAt("after midnight", DAY_START.plusDays(1).plusMinutes(5));
+
+        // Act
+        List<TaskBucket> buckets = taskService.countTasksCreatedPer(ChronoUnit.HOURS, DAY_START, DAY_START.plusDays(2));
+
+        // Assert
+        assertEquals(2, buckets.size());
+        assertEquals(DAY_START.plusHours(23), buckets.get(0).getStart());
+        assertEquals(1L, buckets.get(0).getCount());
+        assertEquals(DAY_START.plusDays(1), buckets.get(1).getStart());
+        assertEquals(1L, buckets.get(1).getCount());
+    }
+
+    @Test
+    public void testCounts_EmptyRange() {
+        // Arrange
+        saveTaskCreatedAt("at start", DAY_START);
+
+        // Act & Assert: an empty interval and a range with no tasks both yield no buckets
+        assertTrue(taskRepository.countCreatedPerDay(DAY_START, DAY_START).isEmpty());
+        assertTrue(taskRepository.countCreatedPerHour(DAY_START, DAY_START).isEmpty());
+        assertTrue(taskRepository.countCreatedPerDay(DAY_START.plusDays(5), DAY_START.plusDays(6)).isEmpty());
+        assertTrue(taskService.countTasksCreatedPer(ChronoUnit.DAYS, DAY_START.plusDays(5), DAY_START.plusDays(6)).isEmpty());
+    }
+
+    @Test
+    public void testStreamByCreatedAtRange_InCreationOrder() {
+        // Arrange: saved out of order, with a tie on createdAt broken by id
+        saveTaskCreatedAt("third", DAY_START.plusHours(2));
+        saveTaskCreatedAt("first", DAY_START);
+        saveTaskCreatedAt("second", DAY_START.plusHours(1));
+        saveTaskCreatedAt("also second", DAY_START.plusHours(1));
+        saveTaskCreatedAt("at end", DAY_START.plusHours(3));
+
+        // Act
+        List<String> titles;
+        try (Stream<Task> tasks = taskRepository.streamByCreatedAtRange(DAY_START, DAY_START.plusHours(3))) {
+            titles = tasks.map(Task::getTitle).collect(Collectors.toList());
+        }
+
+        // Assert
+        assertEquals(List.of("first", "second", "also second", "third"), titles);
+    }
+
+    private void saveTaskCreatedAt(String title, LocalDateTime createdAt) {
+        Task task = new Task(title, null);
+        task.setCreatedAt(createdAt);
+        taskRepository.save(task);
+    }
+}
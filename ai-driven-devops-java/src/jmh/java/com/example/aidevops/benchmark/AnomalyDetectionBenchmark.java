@@ -0,0 +1,67 @@
+package com.example.aidevops.benchmark;
+
+import com.example.aidevops.monitoring.AnomalyDetectionService;
+import com.example.aidevops.monitoring.AnomalyDetectionService.MetricDataPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-sample cost of AnomalyDetectionService.detectAnomaly with a full window
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnomalyDetectionBenchmark {
+    
+    @Param({"10", "1000"})
+    private int windowSize;
+    
+    private AnomalyDetectionService service;
+    private List<MetricDataPoint> batch;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        service = new AnomalyDetectionService(windowSize, AnomalyDetectionService.DEFAULT_Z_THRESHOLD,
+                AnomalyDetectionService.DEFAULT_QUANTILE);
+        for (int i = 0; i < 2 * windowSize + 1000; i++) {
+            service.detectAnomaly(new MetricDataPoint("cpu.usage", sample()));
+        }
+    }
+    
+    @Setup(Level.Iteration)
+    public void setupBatch() {
+        // One agent push: 500 distinct metrics, one sample each
+        batch = new ArrayList<>(500);
+        for (int i = 0; i < 500; i++) {
+            batch.add(new MetricDataPoint("metric." + i, sample()));
+        }
+    }
+    
+    private static double sample() {
+        return 50.0 + ThreadLocalRandom.current().nextGaussian() * 5.0;
+    }
+    
+    @Benchmark
+    public boolean detectAnomaly() {
+        return service.detectAnomaly(new MetricDataPoint("cpu.usage", sample()));
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public boolean detectAnomalyContended() {
+        return service.detectAnomaly(new MetricDataPoint("cpu.usage", sample()));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(500)
+    public AnomalyDetectionService.BatchResult detectAnomaliesBatch() {
+        return service.detectAnomalies(batch);
+    }
+}
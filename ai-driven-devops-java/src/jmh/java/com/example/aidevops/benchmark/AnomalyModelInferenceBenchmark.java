@@ -0,0 +1,89 @@
+package com.example.aidevops.benchmark;
+
+import com.example.aidevops.monitoring.AnomalyDetectionService;
+import com.example.aidevops.monitoring.AnomalyDetectionService.MetricDataPoint;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.util.ModelSerializer;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-sample cost of anomaly detection with a DL4J model loaded:
+ * concurrent single samples (coalesced by the micro-batcher) and 500-sample batches
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnomalyModelInferenceBenchmark {
+    
+    private AnomalyDetectionService service;
+    private List<MetricDataPoint> batch;
+    private File modelFile;
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder()
+                .list()
+                .layer(new DenseLayer.Builder().nIn(3).nOut(16).activation(Activation.RELU).build())
+                .layer(new OutputLayer.Builder(LossFunctions.LossFunction.XENT).nIn(16).nOut(1)
+                        .activation(Activation.SIGMOID).build())
+                .build();
+        MultiLayerNetwork network = new MultiLayerNetwork(conf);
+        network.init();
+        modelFile = File.createTempFile("anomaly-model", ".zip");
+        ModelSerializer.writeModel(network, modelFile, false);
+        
+        service = new AnomalyDetectionService();
+        if (!service.loadModel(modelFile.toURI().toString())) {
+            throw new IllegalStateException("benchmark model did not load");
+        }
+        for (int i = 0; i < 1000; i++) {
+            service.detectAnomaly(new MetricDataPoint("cpu.usage", sample()));
+        }
+        batch = new ArrayList<>(500);
+        for (int i = 0; i < 500; i++) {
+            String name = "metric." + i;
+            for (int j = 0; j < 40; j++) {
+                service.detectAnomaly(new MetricDataPoint(name, sample()));
+            }
+            batch.add(new MetricDataPoint(name, sample()));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+        modelFile.delete();
+    }
+    
+    private static double sample() {
+        return 50.0 + ThreadLocalRandom.current().nextGaussian() * 5.0;
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public boolean detectAnomalyWithModel() {
+        return service.detectAnomaly(new MetricDataPoint("cpu.usage", sample()));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(500)
+    public AnomalyDetectionService.BatchResult detectAnomaliesWithModel() {
+        return service.detectAnomalies(batch);
+    }
+}
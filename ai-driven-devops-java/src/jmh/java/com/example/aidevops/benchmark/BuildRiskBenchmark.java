@@ -0,0 +1,69 @@
+package com.example.aidevops.benchmark;
+
+import com.example.aidevops.cicd.BuildOutcomeStore;
+import com.example.aidevops.cicd.PredictiveCiCdService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of build risk assessment on one thread and on every core; with no shared
+ * mutable state the all-cores figure should grow with the core count. The cached variant
+ * repeats the same change sets, as CI retries do, so every assessment after the first is a hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuildRiskBenchmark {
+    
+    private static final int CHANGE_SETS = 256;
+    
+    private PredictiveCiCdService service;
+    private PredictiveCiCdService cachedService;
+    private Map<String, Integer>[] changeSets;
+    
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        service = new PredictiveCiCdService();
+        cachedService = new PredictiveCiCdService(null, new BuildOutcomeStore(), 4 * CHANGE_SETS);
+        changeSets = new Map[CHANGE_SETS];
+        for (int i = 0; i < CHANGE_SETS; i++) {
+            Map<String, Integer> changes = new HashMap<>();
+            changes.put("src/security/AuthFilter" + i + ".java", i % 40);
+            changes.put("src/repository/OrderRepository" + i + ".java", 10 + i % 25);
+            for (int j = 0; j < 1 + i % 8; j++) {
+                changes.put("src/web/Page" + i + "_" + j + ".java", j * 7);
+            }
+            changeSets[i] = changes;
+        }
+    }
+    
+    private PredictiveCiCdService.BuildRiskAssessment assessRandomChangeSet() {
+        return service.predictBuildSuccess(changeSets[ThreadLocalRandom.current().nextInt(CHANGE_SETS)]);
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public PredictiveCiCdService.BuildRiskAssessment assessSingleThread() {
+        return assessRandomChangeSet();
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public PredictiveCiCdService.BuildRiskAssessment assessAllCores() {
+        return assessRandomChangeSet();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public PredictiveCiCdService.BuildRiskAssessment assessRepeatedCached() {
+        return cachedService.predictBuildSuccess(changeSets[ThreadLocalRandom.current().nextInt(CHANGE_SETS)]);
+    }
+}
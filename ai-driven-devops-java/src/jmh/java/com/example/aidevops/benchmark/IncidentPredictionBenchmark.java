@@ -0,0 +1,91 @@
+package com.example.aidevops.benchmark;
+
+import com.example.aidevops.incident.IncidentPredictionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording samples and of one full IncidentPredictionService analysis pass,
+ * alone and concurrently
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncidentPredictionBenchmark {
+    
+    private static final String[] METRIC_TYPES = {"memory.used", "cpu.usage", "latency.p99", "error.count", "queue.depth"};
+    
+    @Param({"100", "10000"})
+    private int seriesCount;
+    
+    // Analysis worker threads; 0 = one per available processor
+    @Param({"1", "0"})
+    private int parallelism;
+    
+    private IncidentPredictionService service;
+    private String[] metricNames;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        service = new IncidentPredictionService(parallelism);
+        metricNames = new String[seriesCount];
+        for (int i = 0; i < seriesCount; i++) {
+            metricNames[i] = METRIC_TYPES[i % METRIC_TYPES.length] + "." + i;
+        }
+        for (int sample = 0; sample < 100; sample++) {
+            for (String metricName : metricNames) {
+                service.recordMetric(metricName, sample());
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+    
+    private static double sample() {
+        return 40.0 + ThreadLocalRandom.current().nextDouble();
+    }
+    
+    @Benchmark
+    public void recordMetric() {
+        service.recordMetric(metricNames[ThreadLocalRandom.current().nextInt(seriesCount)], sample());
+    }
+    
+    @Benchmark
+    public List<IncidentPredictionService.IncidentPrediction> predictIncidents() {
+        return service.predictIncidents();
+    }
+    
+    // Event-driven round: 100 series changed since the previous evaluation
+    @Benchmark
+    public List<IncidentPredictionService.IncidentPrediction> evaluateDirtySeries() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 100; i++) {
+            service.recordMetric(metricNames[random.nextInt(seriesCount)], sample());
+        }
+        return service.evaluateDirtySeries();
+    }
+    
+    // Recorders running alongside a continuous analysis pass
+    @Benchmark
+    @Group("recordDuringAnalysis")
+    @GroupThreads(3)
+    public void recordWhileAnalysing() {
+        service.recordMetric(metricNames[ThreadLocalRandom.current().nextInt(seriesCount)], sample());
+    }
+    
+    @Benchmark
+    @Group("recordDuringAnalysis")
+    @GroupThreads(1)
+    public void analyseWhileRecording() {
+        service.predictIncidents();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.aidevops.benchmark;
+
+import com.example.aidevops.cicd.PathRiskMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scoring changed paths against the path risk rules: the compiled matcher against one
+ * {@code contains} scan per keyword, as the rule table grows
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathRiskBenchmark {
+    
+    private static final int PATHS = 20_000;
+    private static final int KEYWORDS_PER_RULE = 4;
+    
+    @Param({"2", "16", "64"})
+    private int rules;
+    
+    private PathRiskMatcher matcher;
+    private String[][] keywords;
+    private double[] weights;
+    private String[] paths;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        List<PathRiskMatcher.Rule> table = new ArrayList<>();
+        keywords = new String[rules][KEYWORDS_PER_RULE];
+        weights = new double[rules];
+        for (int r = 0; r < rules; r++) {
+            for (int k = 0; k < KEYWORDS_PER_RULE; k++) {
+                keywords[r][k] = "component" + r + "x" + k;
+            }
+            weights[r] = 0.01 * (r + 1);
+            table.add(new PathRiskMatcher.Rule("rule" + r, weights[r], List.of(keywords[r]), List.of()));
+        }
+        matcher = PathRiskMatcher.compile(table);
+        paths = new String[PATHS];
+        for (int i = 0; i < PATHS; i++) {
+            String name = "Class" + i + ".java";
+            paths[i] = random.nextInt(10) == 0
+                    ? "src/main/java/com/example/" + keywords[random.nextInt(rules)][random.nextInt(KEYWORDS_PER_RULE)] + "/" + name
+                    : "src/main/java/com/example/module" + random.nextInt(50) + "/service/" + name;
+        }
+    }
+    
+    @Benchmark
+    public double compiledMatcher() {
+        double total = 0;
+        for (String path : paths) {
+            total += matcher.score(path);
+        }
+        return total;
+    }
+    
+    @Benchmark
+    public double containsPerKeyword() {
+        double total = 0;
+        for (String path : paths) {
+            for (int r = 0; r < keywords.length; r++) {
+                for (String keyword : keywords[r]) {
+                    if (path.contains(keyword)) {
+                        total += weights[r];
+                        break;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+}
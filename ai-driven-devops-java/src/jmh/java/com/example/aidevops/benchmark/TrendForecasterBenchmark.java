@@ -0,0 +1,56 @@
+package com.example.aidevops.benchmark;
+
+import com.example.aidevops.incident.TrendForecaster;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-sample cost of the trend forecaster and of one time-to-threshold estimate,
+ * on a synthetic noisy series sampled at irregular intervals
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrendForecasterBenchmark {
+    
+    private static final int SAMPLES = 4096;
+    
+    private final long[] timestamps = new long[SAMPLES];
+    private final double[] values = new double[SAMPLES];
+    private TrendForecaster forecaster;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        long timestamp = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            timestamp += 10_000 + random.nextInt(110_000);
+            timestamps[i] = timestamp;
+            values[i] = 20 + 0.5 * timestamp / 60_000.0 + random.nextGaussian() * 2;
+        }
+        forecaster = new TrendForecaster(15);
+        for (int i = 0; i < 100; i++) {
+            forecaster.add(timestamps[i], values[i]);
+        }
+    }
+    
+    @Benchmark
+    public void add() {
+        int i = next++ & (SAMPLES - 1);
+        if (i == 0) {
+            forecaster = new TrendForecaster(15);
+        }
+        forecaster.add(timestamps[i], values[i]);
+    }
+    
+    @Benchmark
+    public TrendForecaster.TimeToThreshold timeToThreshold() {
+        return forecaster.timeToThreshold(forecaster.getLevel() + 50, 1.96);
+    }
+}
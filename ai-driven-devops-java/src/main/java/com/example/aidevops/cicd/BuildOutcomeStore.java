@@ -0,0 +1,550 @@
+package com.example.aidevops.cicd;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only history of build outcomes, with running failure counts per changed file and per
+ * directory.
+ *
+ * Every recorded build is appended to the current segment of a log in the history directory
+ * ({@code segment-NNNNNN.log}, rolled at a size limit and never rewritten) and folded into
+ * in-memory counters, so a failure rate is a map lookup and never a scan of the history. The
+ * counters are checkpointed together with the log position every {@code checkpointInterval}
+ * builds, when a segment rolls, and on close; on startup the checkpoint is loaded and only the
+ * records after it are replayed. A record torn by a crash (bad length or checksum) ends its
+ * segment and is truncated away.
+ *
+ * Failure rates are smoothed toward the overall rate rounded to {@value #PRIOR_STEP}, so an
+ * unrelated build only changes a component's rate when it moves that rounded prior. Each
+ * component's {@link Stats} is immutable and replaced by every build that touches it, so callers
+ * can tell whether a component changed by comparing instances.
+ *
+ * Without a directory the counters are kept in memory only. Thread-safe: recording is
+ * serialized, reads are lock-free.
+ */
+@Component
+public class BuildOutcomeStore implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BuildOutcomeStore.class);
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+    static final String CHECKPOINT_FILE = "counters.checkpoint";
+    // Below this many builds a file's own history is too thin, and its directory's is used
+    static final long MIN_FILE_BUILDS = 3;
+    // Failure rates are pulled toward the overall rate as if by this many extra builds
+    private static final double PRIOR_BUILDS = 2.0;
+    static final double PRIOR_STEP = 0.01;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int CHECKPOINT_MAGIC = 0x424F5331;
+    // Length before and checksum after each record's payload
+    private static final int RECORD_OVERHEAD = 2 * Integer.BYTES;
+    // Recovery treats a longer record as torn, so record() refuses to write one
+    static final int MAX_RECORD_BYTES = 16 << 20;
+
+    private final Counter recorded = Metrics.counter("ai.cicd.build.outcomes.recorded");
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int checkpointInterval;
+    private final Map<String, Stats> files = new ConcurrentHashMap<>();
+    private final Map<String, Stats> directories = new ConcurrentHashMap<>();
+    private volatile Stats overall = Stats.EMPTY;
+    private volatile long version;
+    // Overall failure rate rounded to PRIOR_STEP, and how many times it has changed
+    private volatile double prior = 0.5;
+    private volatile long priorVersion;
+
+    // Guarded by this
+    private FileChannel segment;
+    private long segmentIndex;
+    private int sinceCheckpoint;
+
+    /**
+     * In-memory store; nothing survives a restart
+     */
+    public BuildOutcomeStore() {
+        this.directory = null;
+        this.segmentBytes = DEFAULT_SEGMENT_BYTES;
+        this.checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+    }
+
+    /**
+     * @param directory history directory, or blank to keep the history in memory only
+     */
+    @Autowired
+    public BuildOutcomeStore(
+            @Value("${ai.cicd.build-history.dir:}") String directory,
+            @Value("${ai.cicd.build-history.segment-size-mb:64}") long segmentSizeMb,
+            @Value("${ai.cicd.build-history.checkpoint-interval:10000}") int checkpointInterval) throws IOException {
+        this(directory == null || directory.isBlank() ? null : Path.of(directory), segmentSizeMb << 20, checkpointInterval);
+    }
+
+    /**
+     * Opens (creating if needed) a file-backed store and restores its counters
+     * @param directory history directory, or null to keep the history in memory only
+     */
+    public BuildOutcomeStore(Path directory, long segmentBytes, int checkpointInterval) throws IOException {
+        if (segmentBytes < 1 || checkpointInterval < 1) {
+            throw new IllegalArgumentException("segment size and checkpoint interval must be positive");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.checkpointInterval = checkpointInterval;
+        Metrics.gauge("ai.cicd.build.history.components", files, Map::size);
+        if (directory != null) {
+            Files.createDirectories(directory);
+            recover();
+        }
+    }
+
+    /**
+     * Appends a build outcome and counts it once for each changed file and each directory touched
+     * @throws IllegalArgumentException if a path is null or over 64 KiB, or the encoded outcome is
+     *         over {@value #MAX_RECORD_BYTES} bytes; nothing is written
+     * @throws IOException if the outcome could not be appended; the counters are then unchanged
+     */
+    public void record(Collection<String> changedFiles, boolean success, long timestamp) throws IOException {
+        Set<String> paths = new LinkedHashSet<>(changedFiles);
+        byte[] payload = encode(timestamp, success, paths);
+        synchronized (this) {
+            if (directory != null) {
+                if (segment == null) {
+                    throw new IllegalStateException("build outcome store is closed");
+                }
+                append(payload);
+            }
+            apply(paths, success);
+            version++;
+            if (directory != null && ++sinceCheckpoint >= checkpointInterval) {
+                checkpointQuietly();
+            }
+        }
+        recorded.increment();
+    }
+
+    /**
+     * Smoothed failure rate of the builds that changed the file, or of those that changed its
+     * directory while the file has fewer than {@value #MIN_FILE_BUILDS} builds of its own
+     * @return the rate, or NaN if neither has any history
+     */
+    public double failureRate(String path) {
+        Stats stats = files.get(path);
+        if (stats == null || stats.builds < MIN_FILE_BUILDS) {
+            stats = directories.get(directoryOf(path));
+        }
+        if (stats == null) {
+            return Double.NaN;
+        }
+        return (stats.failures + PRIOR_BUILDS * prior) / (stats.builds + PRIOR_BUILDS);
+    }
+
+    /**
+     * Counts for builds that changed the file, or null if none did
+     */
+    public Stats getFileStats(String path) {
+        return files.get(path);
+    }
+
+    /**
+     * Counts for builds that changed any file directly in the directory, or null if none did
+     */
+    public Stats getDirectoryStats(String directory) {
+        return directories.get(directory);
+    }
+
+    public Stats getOverallStats() {
+        return overall;
+    }
+
+    /**
+     * Number of builds recorded by this instance; changes whenever any failure rate may have
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Changes whenever the rounded overall failure rate does, which moves the rate of every
+     * component with history; otherwise a build only moves the rates of the components it touched
+     */
+    public long getPriorVersion() {
+        return priorVersion;
+    }
+
+    static String directoryOf(String path) {
+        int slash = path.lastIndexOf('/');
+        return slash < 0 ? "" : path.substring(0, slash);
+    }
+
+    private void apply(Collection<String> paths, boolean success) {
+        Stats one = success ? Stats.SUCCESS : Stats.FAILURE;
+        Set<String> touched = new HashSet<>();
+        for (String path : paths) {
+            files.merge(path, one, Stats::plus);
+            touched.add(directoryOf(path));
+        }
+        for (String dir : touched) {
+            directories.merge(dir, one, Stats::plus);
+        }
+        overall = overall.plus(one);
+        updatePrior();
+    }
+
+    private void updatePrior() {
+        Stats all = overall;
+        double rate = all.builds == 0 ? 0.5 : Math.round((double) all.failures / all.builds / PRIOR_STEP) * PRIOR_STEP;
+        if (rate != prior) {
+            prior = rate;
+            priorVersion++;
+        }
+    }
+
+    // Log
+
+    private void append(byte[] payload) throws IOException {
+        long start = segment.size();
+        if (start > 0 && start + RECORD_OVERHEAD + payload.length > segmentBytes) {
+            rollSegment();
+            start = 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD + payload.length);
+        record.putInt(payload.length).put(payload).putInt((int) crc.getValue()).flip();
+        try {
+            while (record.hasRemaining()) {
+                segment.write(record, start + record.position());
+            }
+        } catch (IOException e) {
+            // Leave no partial record behind for the next append to follow
+            segment.truncate(start);
+            throw e;
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        segment.force(false);
+        segment.close();
+        segment = openSegment(++segmentIndex);
+        checkpointQuietly();
+    }
+
+    private FileChannel openSegment(long index) throws IOException {
+        return FileChannel.open(segmentPath(index), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> segmentIndexes() throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            indexes.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                        } catch (NumberFormatException e) {
+                            logger.warn("Ignoring unexpected file {} in build history", name);
+                        }
+                    });
+        }
+        indexes.sort(null);
+        return indexes;
+    }
+
+    private synchronized void recover() throws IOException {
+        long[] position = loadCheckpoint();
+        long builds = overall.builds;
+        List<Long> indexes = segmentIndexes();
+        int replayed = 0;
+        for (long index : indexes) {
+            if (index >= position[0]) {
+                replayed += replay(index, index == position[0] ? position[1] : 0);
+            }
+        }
+        segmentIndex = Math.max(indexes.isEmpty() ? 1 : indexes.get(indexes.size() - 1), Math.max(1, position[0]));
+        segment = openSegment(segmentIndex);
+        logger.info("Build history loaded from {}: {} builds ({} from the checkpoint, {} replayed from the log)",
+                directory, overall.builds, builds, replayed);
+        if (replayed > 0) {
+            checkpointQuietly();
+        }
+    }
+
+    /**
+     * Replays one segment from an offset into the counters
+     * @return records replayed
+     */
+    private int replay(long index, long from) throws IOException {
+        Path path = segmentPath(index);
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long position = from;
+            while (position < size) {
+                byte[] payload = readRecord(channel, position, size);
+                if (payload == null) {
+                    logger.warn("Truncating torn build record in {} at byte {}", path, position);
+                    channel.truncate(position);
+                    break;
+                }
+                decodeAndApply(payload);
+                position += RECORD_OVERHEAD + payload.length;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The payload of the record at a position, or null if it is incomplete or corrupt
+     */
+    private static byte[] readRecord(FileChannel channel, long position, long size) throws IOException {
+        if (size - position < RECORD_OVERHEAD) {
+            return null;
+        }
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(channel, length, position);
+        int payloadLength = length.getInt(0);
+        if (payloadLength < 0 || payloadLength > MAX_RECORD_BYTES || size - position - RECORD_OVERHEAD < payloadLength) {
+            return null;
+        }
+        ByteBuffer rest = ByteBuffer.allocate(payloadLength + Integer.BYTES);
+        readFully(channel, rest, position + Integer.BYTES);
+        byte[] payload = new byte[payloadLength];
+        rest.get(0, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == rest.getInt(payloadLength) ? payload : null;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of build history segment");
+            }
+        }
+    }
+
+    private static byte[] encode(long timestamp, boolean success, Collection<String> paths) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + paths.size() * 48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(timestamp);
+            out.writeBoolean(success);
+            out.writeInt(paths.size());
+            for (String path : paths) {
+                if (path == null) {
+                    throw new IllegalArgumentException("changed file paths must not be null");
+                }
+                out.writeUTF(path);
+                if (bytes.size() > MAX_RECORD_BYTES) {
+                    throw new IllegalArgumentException("build outcome exceeds " + MAX_RECORD_BYTES + " bytes");
+                }
+            }
+        } catch (IOException e) {
+            // Only possible for a path over 64 KiB of UTF-8
+            throw new IllegalArgumentException("changed file path too long", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void decodeAndApply(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        in.readLong();
+        boolean success = in.readBoolean();
+        int count = in.readInt();
+        List<String> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            paths.add(in.readUTF());
+        }
+        apply(paths, success);
+    }
+
+    // Checkpoint
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            // The log is still complete; a restart just replays more of it
+            logger.error("Failed to checkpoint build history in {}: {}", directory, e.getMessage());
+        }
+        sinceCheckpoint = 0;
+    }
+
+    /**
+     * Writes the counters and the log position they cover, replacing the previous checkpoint atomically
+     */
+    private void checkpoint() throws IOException {
+        segment.force(false);
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file), crc))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeLong(segmentIndex);
+            out.writeLong(segment.size());
+            writeStats(out, overall);
+            writeStatsMap(out, files);
+            writeStatsMap(out, directories);
+            out.flush();
+            // The checksum itself is written past the checked stream
+            DataOutputStream trailer = new DataOutputStream(file);
+            trailer.writeLong(crc.getValue());
+            trailer.flush();
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores the counters from the checkpoint
+     * @return {segment index, offset} to replay the log from; {0, 0} to replay all of it
+     */
+    private long[] loadCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        CRC32 crc = new CRC32();
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path))) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != CHECKPOINT_MAGIC) {
+                throw new IOException("not a build history checkpoint");
+            }
+            long index = in.readLong();
+            long offset = in.readLong();
+            Stats all = readStats(in);
+            Map<String, Stats> fileStats = readStatsMap(in);
+            Map<String, Stats> directoryStats = readStatsMap(in);
+            long expected = crc.getValue();
+            if (new DataInputStream(file).readLong() != expected) {
+                throw new IOException("checksum mismatch");
+            }
+            overall = all;
+            files.putAll(fileStats);
+            directories.putAll(directoryStats);
+            updatePrior();
+            return new long[] {index, offset};
+        } catch (NoSuchFileException e) {
+            return new long[] {0, 0};
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable build history checkpoint {} ({}); replaying the whole log", path, e.getMessage());
+            return new long[] {0, 0};
+        }
+    }
+
+    private static void writeStats(DataOutputStream out, Stats stats) throws IOException {
+        out.writeLong(stats.builds);
+        out.writeLong(stats.failures);
+    }
+
+    private static Stats readStats(DataInputStream in) throws IOException {
+        return new Stats(in.readLong(), in.readLong());
+    }
+
+    private static void writeStatsMap(DataOutputStream out, Map<String, Stats> stats) throws IOException {
+        // Recording is serialized with checkpoints, so the map cannot change under the iteration
+        out.writeInt(stats.size());
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeStats(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, Stats> readStatsMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<String, Stats> stats = new ConcurrentHashMap<>(Math.max(16, size * 2));
+        for (int i = 0; i < size; i++) {
+            stats.put(in.readUTF(), readStats(in));
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    @Override
+    public synchronized void close() {
+        if (segment == null) {
+            return;
+        }
+        checkpointQuietly();
+        try {
+            segment.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            segment = null;
+        }
+    }
+
+    /**
+     * Build and failure counts for one component; immutable, so both counts always match, and
+     * replaced whenever a build touches the component
+     */
+    public static final class Stats {
+        static final Stats EMPTY = new Stats(0, 0);
+        static final Stats SUCCESS = new Stats(1, 0);
+        static final Stats FAILURE = new Stats(1, 1);
+
+        private final long builds;
+        private final long failures;
+
+        Stats(long builds, long failures) {
+            this.builds = builds;
+            this.failures = failures;
+        }
+
+        Stats plus(Stats other) {
+            return new Stats(builds + other.builds, failures + other.failures);
+        }
+
+        public long getBuilds() {
+            return builds;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        @Override
+        public String toString() {
+            return failures + "/" + builds + " failed";
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.aidevops.cicd;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache of results computed from a change set (file name to change size).
+ *
+ * Entries are keyed by an order-independent 64-bit fingerprint of the change set, and a hit is
+ * checked against the stored change set, so a fingerprint collision is only ever a miss. Each
+ * entry records the generation of the inputs it was computed from; a lookup with any other
+ * generation misses, so bumping the generation invalidates every entry at once; finer-grained
+ * dependencies are checked by the caller's validity test at lookup. Entries are split into
+ * stripes by fingerprint, each a small LRU map behind its own lock.
+ */
+public final class ChangeSetCache<V> {
+
+    private static final int STRIPES = 16;
+
+    private final Map<Long, Entry<V>>[] stripes;
+    private final int stripeCapacity;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /**
+     * @param name value of the {@code cache} tag on the cache's meters
+     * @param maxEntries entries kept before the least recently used are evicted
+     */
+    @SuppressWarnings("unchecked")
+    public ChangeSetCache(String name, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        Tags tags = Tags.of("cache", name);
+        this.hits = Metrics.counter("ai.cache.requests", tags.and("result", "hit"));
+        this.misses = Metrics.counter("ai.cache.requests", tags.and("result", "miss"));
+        this.evictions = Metrics.counter("ai.cache.evictions", tags);
+        Metrics.gauge("ai.cache.hit.ratio", tags, this, ChangeSetCache::hitRatio);
+        Metrics.gauge("ai.cache.size", tags, this, ChangeSetCache::size);
+        this.stripeCapacity = Math.max(1, (maxEntries + STRIPES - 1) / STRIPES);
+        this.stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry<V>> eldest) {
+                    if (size() > stripeCapacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    /**
+     * The value cached for this change set at this generation, or null
+     */
+    public V get(Map<String, Integer> changes, long generation) {
+        return get(changes, generation, value -> true);
+    }
+
+    /**
+     * The value cached for this change set at this generation if it also passes {@code current},
+     * or null; a value failing the test counts as a miss
+     */
+    public V get(Map<String, Integer> changes, long generation, Predicate<? super V> current) {
+        long key = fingerprint(changes);
+        Map<Long, Entry<V>> stripe = stripeFor(key);
+        Entry<V> entry;
+        synchronized (stripe) {
+            entry = stripe.get(key);
+        }
+        if (entry != null && entry.generation == generation && entry.changes.equals(changes)
+                && current.test(entry.value)) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a value computed from the change set at the given generation; the change set is copied
+     */
+    public void put(Map<String, Integer> changes, long generation, V value) {
+        long key = fingerprint(changes);
+        Entry<V> entry = new Entry<>(Map.copyOf(changes), generation, value);
+        Map<Long, Entry<V>> stripe = stripeFor(key);
+        synchronized (stripe) {
+            // A slower computation from older inputs must not replace a newer result
+            Entry<V> current = stripe.get(key);
+            if (current == null || current.generation <= generation) {
+                stripe.put(key, entry);
+            }
+        }
+    }
+
+    public void clear() {
+        for (Map<Long, Entry<V>> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<Long, Entry<V>> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Hits over lookups, across every cache with the same name; NaN before the first lookup
+     */
+    public double hitRatio() {
+        double lookups = hits.count() + misses.count();
+        return lookups == 0 ? Double.NaN : hits.count() / lookups;
+    }
+
+    private Map<Long, Entry<V>> stripeFor(long key) {
+        return stripes[(int) (key >>> 60) & (STRIPES - 1)];
+    }
+
+    /**
+     * Sum of a strong hash of every (file, size) pair, so entry order does not matter
+     */
+    static long fingerprint(Map<String, Integer> changes) {
+        long sum = changes.size();
+        for (Map.Entry<String, Integer> change : changes.entrySet()) {
+            // FNV-1a over the file name
+            long h = 0xcbf29ce484222325L;
+            String name = change.getKey();
+            for (int i = 0; i < name.length(); i++) {
+                h = (h ^ name.charAt(i)) * 0x100000001b3L;
+            }
+            sum += mix(h ^ mix(0x9E3779B97F4A7C15L + (change.getValue() == null ? 0 : change.getValue())));
+        }
+        return mix(sum);
+    }
+
+    // MurmurHash3 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static final class Entry<V> {
+        private final Map<String, Integer> changes;
+        private final long generation;
+        private final V value;
+
+        private Entry(Map<String, Integer> changes, long generation, V value) {
+            this.changes = changes;
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.aidevops.cicd;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores file paths against a table of path risk rules in one pass over each path.
+ *
+ * Every rule contributes its weight once per path if any of its keywords occurs in the path or
+ * any of its globs matches it. All keywords and globs are compiled into a single Aho-Corasick
+ * automaton, so scoring a path costs O(path length) however many rules there are. Globs may
+ * only have wildcards at the ends, which is what makes them expressible as anchored keywords:
+ * <ul>
+ *   <li>{@code src/auth/**} - paths under src/auth/</li>
+ *   <li>{@code **}{@code /auth/**} - paths with an auth directory anywhere</li>
+ *   <li>{@code *.sql} or {@code **}{@code /*.sql} - paths ending in .sql</li>
+ * </ul>
+ * A wildcard at either end matches any characters, including '/'. Matching is case-sensitive.
+ * Immutable and thread-safe once compiled.
+ */
+public final class PathRiskMatcher {
+
+    static final int MAX_RULES = Long.SIZE;
+    // Marks the start and end of a path, so anchored globs become plain keywords
+    private static final char BOUNDARY = '\u0000';
+
+    private final double[] weights;
+    // Dense DFA: transitions[state * alphabetSize + symbol]; symbol 0 is "not in any pattern"
+    private final int[] transitions;
+    private final int alphabetSize;
+    private final int[] asciiSymbols;
+    private final Map<Character, Integer> otherSymbols;
+    // Rules matched on reaching each state, including through its failure links
+    private final long[] matchedRules;
+
+    private PathRiskMatcher(double[] weights, int[] transitions, int alphabetSize, int[] asciiSymbols,
+                            Map<Character, Integer> otherSymbols, long[] matchedRules) {
+        this.weights = weights;
+        this.transitions = transitions;
+        this.alphabetSize = alphabetSize;
+        this.asciiSymbols = asciiSymbols;
+        this.otherSymbols = otherSymbols;
+        this.matchedRules = matchedRules;
+    }
+
+    /**
+     * The built-in model: the security and data-access rules assessments have always used
+     */
+    public static PathRiskMatcher defaults() {
+        return compile(List.of(
+                new Rule("security", 0.2, List.of("security", "auth"), List.of()),
+                new Rule("data-access", 0.15, List.of("repository", "dao"), List.of())));
+    }
+
+    /**
+     * Reads and compiles a model file: {@code {"rules": [{"name", "weight", "keywords", "globs"}, ...]}}
+     */
+    public static PathRiskMatcher read(InputStream in) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode rules = mapper.readTree(in).path("rules");
+        if (!rules.isArray()) {
+            throw new IOException("path risk model has no \"rules\" array");
+        }
+        return compile(List.of(mapper.treeToValue(rules, Rule[].class)));
+    }
+
+    /**
+     * @throws IllegalArgumentException for more than {@value #MAX_RULES} rules, a rule without
+     *         keywords or globs, or a glob with wildcards in the middle
+     */
+    public static PathRiskMatcher compile(List<Rule> rules) {
+        if (rules.size() > MAX_RULES) {
+            throw new IllegalArgumentException("at most " + MAX_RULES + " path risk rules are supported, got " + rules.size());
+        }
+        List<String> keywords = new ArrayList<>();
+        List<Integer> keywordRules = new ArrayList<>();
+        double[] weights = new double[rules.size()];
+        for (int r = 0; r < rules.size(); r++) {
+            Rule rule = rules.get(r);
+            weights[r] = rule.getWeight();
+            int before = keywords.size();
+            for (String keyword : rule.getKeywords()) {
+                if (!keyword.isEmpty()) {
+                    keywords.add(keyword);
+                    keywordRules.add(r);
+                }
+            }
+            for (String glob : rule.getGlobs()) {
+                for (String keyword : globToKeywords(glob)) {
+                    keywords.add(keyword);
+                    keywordRules.add(r);
+                }
+            }
+            if (keywords.size() == before) {
+                throw new IllegalArgumentException("path risk rule '" + rule.getName() + "' has no keywords or globs");
+            }
+        }
+
+        // Symbols: every character used by a pattern gets its own column, the rest share column 0
+        int[] asciiSymbols = new int[128];
+        Map<Character, Integer> otherSymbols = new HashMap<>();
+        int alphabetSize = 1;
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (c < 128) {
+                    if (asciiSymbols[c] == 0) {
+                        asciiSymbols[c] = alphabetSize++;
+                    }
+                } else if (!otherSymbols.containsKey(c)) {
+                    otherSymbols.put(c, alphabetSize++);
+                }
+            }
+        }
+
+        // Trie of all keywords; state 0 is the root
+        List<int[]> trie = new ArrayList<>();
+        List<Long> output = new ArrayList<>();
+        trie.add(newRow(alphabetSize));
+        output.add(0L);
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int symbol = symbolOf(keyword.charAt(i), asciiSymbols, otherSymbols);
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newRow(alphabetSize));
+                    output.add(0L);
+                }
+                state = trie.get(state)[symbol];
+            }
+            output.set(state, output.get(state) | 1L << keywordRules.get(k));
+        }
+
+        // Breadth-first: fill missing transitions from failure links and inherit their outputs
+        int states = trie.size();
+        int[] transitions = new int[states * alphabetSize];
+        long[] matchedRules = new long[states];
+        int[] failure = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = trie.get(0)[symbol];
+            if (next < 0) {
+                transitions[symbol] = 0;
+            } else {
+                transitions[symbol] = next;
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        matchedRules[0] = output.get(0);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matchedRules[state] = output.get(state) | matchedRules[failure[state]];
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = trie.get(state)[symbol];
+                int fallback = transitions[failure[state] * alphabetSize + symbol];
+                if (next < 0) {
+                    transitions[state * alphabetSize + symbol] = fallback;
+                } else {
+                    transitions[state * alphabetSize + symbol] = next;
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+        return new PathRiskMatcher(weights, transitions, alphabetSize, asciiSymbols, otherSymbols, matchedRules);
+    }
+
+    private static int[] newRow(int alphabetSize) {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int symbolOf(char c, int[] asciiSymbols, Map<Character, Integer> otherSymbols) {
+        if (c < 128) {
+            return asciiSymbols[c];
+        }
+        Integer symbol = otherSymbols.get(c);
+        return symbol == null ? 0 : symbol;
+    }
+
+    /**
+     * Turns an end-wildcard glob into the keywords that match the same paths, once the path is
+     * wrapped in boundary markers
+     */
+    static List<String> globToKeywords(String glob) {
+        String literal = glob;
+        List<String> starts;
+        if (literal.startsWith("**/") && !literal.startsWith("**/*")) {
+            // At the start of the path or after any directory separator
+            literal = literal.substring(3);
+            starts = List.of(String.valueOf(BOUNDARY), "/");
+        } else if (literal.startsWith("**/*")) {
+            literal = literal.substring(4);
+            starts = List.of("");
+        } else if (literal.startsWith("*")) {
+            literal = literal.substring(literal.startsWith("**") ? 2 : 1);
+            starts = List.of("");
+        } else {
+            starts = List.of(String.valueOf(BOUNDARY));
+        }
+        String end;
+        if (literal.endsWith("/**")) {
+            literal = literal.substring(0, literal.length() - 2);
+            end = "";
+        } else if (literal.endsWith("*")) {
+            literal = literal.substring(0, literal.length() - (literal.endsWith("**") ? 2 : 1));
+            end = "";
+        } else {
+            end = String.valueOf(BOUNDARY);
+        }
+        if (literal.isEmpty() || literal.indexOf('*') >= 0 || literal.indexOf('?') >= 0) {
+            throw new IllegalArgumentException("unsupported path glob '" + glob + "': wildcards are only allowed at either end");
+        }
+        List<String> keywords = new ArrayList<>(starts.size());
+        for (String start : starts) {
+            keywords.add(start + literal + end);
+        }
+        return keywords;
+    }
+
+    /**
+     * Sum of the weights of the rules matching the path
+     */
+    public double score(String path) {
+        long matched = matchedRules(path);
+        double score = 0;
+        while (matched != 0) {
+            score += weights[Long.numberOfTrailingZeros(matched)];
+            matched &= matched - 1;
+        }
+        return score;
+    }
+
+    /**
+     * Bit set of the rules (by table position) matching the path
+     */
+    long matchedRules(String path) {
+        int state = step(0, BOUNDARY);
+        long matched = matchedRules[state];
+        for (int i = 0; i < path.length(); i++) {
+            state = step(state, path.charAt(i));
+            matched |= matchedRules[state];
+        }
+        state = step(state, BOUNDARY);
+        return matched | matchedRules[state];
+    }
+
+    private int step(int state, char c) {
+        int symbol;
+        if (c < 128) {
+            symbol = asciiSymbols[c];
+        } else {
+            Integer other = otherSymbols.isEmpty() ? null : otherSymbols.get(c);
+            symbol = other == null ? 0 : other;
+        }
+        return transitions[state * alphabetSize + symbol];
+    }
+
+    public int ruleCount() {
+        return weights.length;
+    }
+
+    /**
+     * One row of the path risk model, as read from {@code path-risk-model.json}
+     */
+    public static class Rule {
+        private String name;
+        private double weight;
+        private List<String> keywords = new ArrayList<>();
+        private List<String> globs = new ArrayList<>();
+
+        public Rule() {
+        }
+
+        public Rule(String name, double weight, List<String> keywords, List<String> globs) {
+            this.name = name;
+            this.weight = weight;
+            this.keywords = keywords;
+            this.globs = globs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        public void setWeight(double weight) {
+            this.weight = weight;
+        }
+
+        public List<String> getKeywords() {
+            return keywords;
+        }
+
+        public void setKeywords(List<String> keywords) {
+            this.keywords = keywords == null ? new ArrayList<>() : keywords;
+        }
+
+        public List<String> getGlobs() {
+            return globs;
+        }
+
+        public void setGlobs(List<String> globs) {
+            this.globs = globs == null ? new ArrayList<>() : globs;
+        }
+    }
+}
@@ -2,35 +2,161 @@ package com.example.aidevops.cicd;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for implementing AI-enhanced CI/CD capabilities
  * that can predict build failures before they occur.
+ * Assessments share no mutable state: scores are computed in locals, and component history is
+ * read from the {@link BuildOutcomeStore}, so concurrent requests never share scores.
  */
 @Service
 public class PredictiveCiCdService {
     private static final Logger logger = LoggerFactory.getLogger(PredictiveCiCdService.class);
     
-    private final Map<String, Double> componentRiskScores = new HashMap<>();
-    private final Random random = new Random();
+    static final String PATH_RISK_MODEL_FILE = "path-risk-model.json";
+    // Risk added for a component that fails every build
+    private static final double HISTORY_WEIGHT = 0.4;
+    
+    // Compiled path risk rules; replaced as a whole when a model is loaded
+    private volatile PathRiskMatcher pathRiskMatcher = PathRiskMatcher.defaults();
+    // Bumped on every model load; the generation of cached assessments
+    private final AtomicLong modelGeneration = new AtomicLong();
+    
+    // Seed for the simulated prediction variance; null draws it from ThreadLocalRandom
+    private final Long seed;
+    private final BuildOutcomeStore buildHistory;
+    // Assessments of recently seen change sets; null when caching is off
+    private final ChangeSetCache<CachedAssessment> assessmentCache;
+    
+    public PredictiveCiCdService() {
+        this((Long) null);
+    }
+    
+    /**
+     * @param seed when set, the variance added to a file's score is derived from the seed, the file
+     *             name and the change size, so the same change set always gets the same assessment
+     */
+    public PredictiveCiCdService(Long seed) {
+        this(seed, new BuildOutcomeStore());
+    }
+    
+    public PredictiveCiCdService(Long seed, BuildOutcomeStore buildHistory) {
+        this(seed, buildHistory, 0);
+    }
+    
+    /**
+     * @param cacheEntries change sets whose assessments are kept for repeated requests; 0 disables caching
+     */
+    public PredictiveCiCdService(Long seed, BuildOutcomeStore buildHistory, int cacheEntries) {
+        this.seed = seed;
+        this.buildHistory = buildHistory;
+        this.assessmentCache = cacheEntries > 0 ? new ChangeSetCache<>("build-risk-assessments", cacheEntries) : null;
+    }
+    
+    /**
+     * @param modelsDir directory holding {@value #PATH_RISK_MODEL_FILE}; the built-in rules are used
+     *                  if it is blank or the model cannot be loaded
+     */
+    @Autowired
+    public PredictiveCiCdService(
+            @Value("${ai.cicd.risk-assessment.models-dir:}") String modelsDir,
+            @Value("${ai.cicd.risk-assessment.seed:#{null}}") Long seed,
+            BuildOutcomeStore buildHistory,
+            @Value("${ai.cicd.risk-assessment.cache.max-entries:10000}") int cacheEntries) {
+        this(seed, buildHistory, cacheEntries);
+        if (modelsDir != null && !modelsDir.isBlank()) {
+            loadModel(modelsDir);
+        }
+    }
+    
+    /**
+     * Loads and compiles the path risk model from a models directory (any Spring resource
+     * location), replacing the current one
+     * @return true if loaded; on failure the current model stays in use
+     */
+    public boolean loadModel(String modelsDir) {
+        String location = modelsDir.endsWith("/") ? modelsDir + PATH_RISK_MODEL_FILE : modelsDir + "/" + PATH_RISK_MODEL_FILE;
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        if (!resource.exists()) {
+            logger.info("No path risk model at {}; keeping the current rules", location);
+            return false;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            PathRiskMatcher matcher = PathRiskMatcher.read(in);
+            pathRiskMatcher = matcher;
+            modelGeneration.incrementAndGet();
+            if (assessmentCache != null) {
+                assessmentCache.clear();
+            }
+            logger.info("Path risk model loaded from {} ({} rules)", location, matcher.ruleCount());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to load path risk model from {}: {}", location, e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Records the outcome of a finished build, so later assessments of the same components use it
+     * @throws IllegalArgumentException if the outcome lists no changed files
+     * @throws IOException if the outcome could not be stored
+     */
+    public void recordBuildOutcome(BuildOutcome outcome) throws IOException {
+        if (outcome.getChangedFiles() == null || outcome.getChangedFiles().isEmpty()) {
+            throw new IllegalArgumentException("a build outcome needs its changed files");
+        }
+        long timestamp = outcome.getTimestamp() != null ? outcome.getTimestamp() : System.currentTimeMillis();
+        buildHistory.record(outcome.getChangedFiles(), outcome.isSuccess(), timestamp);
+    }
     
     /**
      * Analyzes the recent code changes to predict potential build failures.
      * In a real implementation, this would leverage an SLM trained on historical
      * build data to identify patterns that correlate with failures.
+     * A change set assessed before is answered from the cache until the path risk model is
+     * reloaded or a recorded build outcome changes the history of one of its files.
      *
      * @param codeChanges Map of files changed with their change size
      * @return Risk assessment of the build
      */
     public BuildRiskAssessment predictBuildSuccess(Map<String, Integer> codeChanges) {
-        logger.info("Analyzing {} code changes for build risk prediction", codeChanges.size());
+        if (assessmentCache == null) {
+            return assess(codeChanges);
+        }
+        long generation = modelGeneration.get();
+        CachedAssessment cached = assessmentCache.get(codeChanges, generation, entry -> entry.isCurrent(buildHistory));
+        if (cached != null) {
+            return new BuildRiskAssessment(cached.assessment);
+        }
+        // Read before assessing, so an update racing the assessment only leaves a stale entry
+        CachedAssessment dependencies = new CachedAssessment(codeChanges.keySet(), buildHistory);
+        BuildRiskAssessment assessment = assess(codeChanges);
+        dependencies.assessment = new BuildRiskAssessment(assessment);
+        assessmentCache.put(codeChanges, generation, dependencies);
+        return assessment;
+    }
+    
+    private BuildRiskAssessment assess(Map<String, Integer> codeChanges) {
+        logger.debug("Analyzing {} code changes for build risk prediction", codeChanges.size());
         
-        double overallRiskScore = calculateRiskScore(codeChanges);
+        Map<String, Double> componentRiskScores = new HashMap<>();
+        double overallRiskScore = calculateRiskScore(codeChanges, pathRiskMatcher, componentRiskScores);
         
         BuildRiskAssessment assessment = new BuildRiskAssessment();
         assessment.setOverallRiskScore(overallRiskScore);
@@ -54,11 +180,10 @@ public class PredictiveCiCdService {
      * Calculates a risk score based on code changes.
      * This is a simplified simulation. In a real implementation, this would
      * use an actual machine learning model.
+     * @param componentRiskScores receives the risk of each changed file
      */
-    private double calculateRiskScore(Map<String, Integer> codeChanges) {
-        // Reset component risk scores
-        componentRiskScores.clear();
-        
+    private double calculateRiskScore(Map<String, Integer> codeChanges, PathRiskMatcher matcher,
+                                      Map<String, Double> componentRiskScores) {
         // Calculate a base risk score based on the number of changes
         double baseRiskScore = Math.min(0.1 + (codeChanges.size() * 0.05), 0.5);
         
@@ -68,7 +193,7 @@ public class PredictiveCiCdService {
             int changeSize = entry.getValue();
             
             // Calculate risk for this component
-            double componentRisk = calculateComponentRisk(filename, changeSize);
+            double componentRisk = calculateComponentRisk(filename, changeSize, matcher);
             componentRiskScores.put(filename, componentRisk);
             
             // Increase overall risk based on component risk
@@ -81,27 +206,124 @@ public class PredictiveCiCdService {
         return Math.min(baseRiskScore, 1.0);
     }
     
-    private double calculateComponentRisk(String filename, int changeSize) {
+    private double calculateComponentRisk(String filename, int changeSize, PathRiskMatcher matcher) {
         // This logic would normally be handled by an ML model
         double baseRisk = 0.0;
         
         // Higher risk for larger changes
         baseRisk += Math.min(changeSize * 0.01, 0.3);
         
-        // Higher risk for critical components
-        if (filename.contains("security") || filename.contains("auth")) {
-            baseRisk += 0.2;
+        // Higher risk for critical components (security, auth), database-related changes
+        // (repository, dao) and whatever else the path risk model lists, in one pass over the path
+        baseRisk += matcher.score(filename);
+        
+        // Components with recorded builds are scored by how often those builds failed;
+        // for the rest, add some randomness to simulate AI prediction variance
+        double failureRate = buildHistory.failureRate(filename);
+        if (Double.isNaN(failureRate)) {
+            baseRisk += (variance(filename, changeSize) * 0.1);
+        } else {
+            baseRisk += failureRate * HISTORY_WEIGHT;
         }
         
-        // Higher risk for database-related changes
-        if (filename.contains("repository") || filename.contains("dao")) {
-            baseRisk += 0.15;
+        return Math.min(baseRisk, 1.0);
+    }
+    
+    /**
+     * Uniform in [0, 1): per-thread random, or a pure function of the inputs when seeded
+     */
+    private double variance(String filename, int changeSize) {
+        if (seed == null) {
+            return ThreadLocalRandom.current().nextDouble();
         }
+        long key = seed ^ (filename.hashCode() * 0x9E3779B97F4A7C15L) ^ (changeSize * 0xC2B2AE3D27D4EB4FL);
+        return new SplittableRandom(key).nextDouble();
+    }
+    
+    /**
+     * A cached assessment with the component history it was computed from: the stats of each
+     * changed file and its directory, and the version of the prior that smooths them
+     */
+    private static final class CachedAssessment {
+        private final String[] paths;
+        private final BuildOutcomeStore.Stats[] fileStats;
+        private final BuildOutcomeStore.Stats[] directoryStats;
+        // -1 when no file or directory had history, so the prior was never read
+        private final long priorVersion;
+        private BuildRiskAssessment assessment;
         
-        // Add some randomness to simulate AI prediction variance
-        baseRisk += (random.nextDouble() * 0.1);
+        private CachedAssessment(Collection<String> changedFiles, BuildOutcomeStore history) {
+            long version = history.getPriorVersion();
+            this.paths = changedFiles.toArray(new String[0]);
+            this.fileStats = new BuildOutcomeStore.Stats[paths.length];
+            this.directoryStats = new BuildOutcomeStore.Stats[paths.length];
+            boolean anyHistory = false;
+            for (int i = 0; i < paths.length; i++) {
+                fileStats[i] = history.getFileStats(paths[i]);
+                directoryStats[i] = history.getDirectoryStats(BuildOutcomeStore.directoryOf(paths[i]));
+                anyHistory |= fileStats[i] != null || directoryStats[i] != null;
+            }
+            this.priorVersion = anyHistory ? version : -1;
+        }
         
-        return Math.min(baseRisk, 1.0);
+        /**
+         * True if no build recorded since touched any of the files or directories, and the prior
+         * is unchanged where it was used
+         */
+        private boolean isCurrent(BuildOutcomeStore history) {
+            if (priorVersion >= 0 && priorVersion != history.getPriorVersion()) {
+                return false;
+            }
+            for (int i = 0; i < paths.length; i++) {
+                if (history.getFileStats(paths[i]) != fileStats[i]
+                        || history.getDirectoryStats(BuildOutcomeStore.directoryOf(paths[i])) != directoryStats[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Outcome of a finished build and the files it changed
+     */
+    public static class BuildOutcome {
+        private List<String> changedFiles = new ArrayList<>();
+        private boolean success;
+        // Epoch millis; defaults to the time it is recorded
+        private Long timestamp;
+        
+        public BuildOutcome() {
+        }
+        
+        public BuildOutcome(List<String> changedFiles, boolean success) {
+            this.changedFiles = changedFiles;
+            this.success = success;
+        }
+        
+        public List<String> getChangedFiles() {
+            return changedFiles;
+        }
+        
+        public void setChangedFiles(List<String> changedFiles) {
+            this.changedFiles = changedFiles;
+        }
+        
+        public boolean isSuccess() {
+            return success;
+        }
+        
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+        
+        public Long getTimestamp() {
+            return timestamp;
+        }
+        
+        public void setTimestamp(Long timestamp) {
+            this.timestamp = timestamp;
+        }
     }
     
     public static class BuildRiskAssessment {
@@ -109,6 +331,15 @@ public class PredictiveCiCdService {
         private String predictedOutcome;
         private Map<String, String> componentRisks = new HashMap<>();
         
+        public BuildRiskAssessment() {
+        }
+        
+        BuildRiskAssessment(BuildRiskAssessment other) {
+            this.overallRiskScore = other.overallRiskScore;
+            this.predictedOutcome = other.predictedOutcome;
+            this.componentRisks = new HashMap<>(other.componentRisks);
+        }
+        
         public double getOverallRiskScore() {
             return overallRiskScore;
         }
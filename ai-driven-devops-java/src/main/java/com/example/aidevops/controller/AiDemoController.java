@@ -2,12 +2,16 @@ package com.example.aidevops.controller;
 
 import com.example.aidevops.ai.CodeGenerationService;
 import com.example.aidevops.cicd.PredictiveCiCdService;
+import com.example.aidevops.incident.IncidentPredictionService;
 import com.example.aidevops.monitoring.AnomalyDetectionService;
+import com.example.aidevops.monitoring.RollingStatistics;
 import com.example.aidevops.testing.TestGenerationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,21 +24,27 @@ import java.util.Map;
 @RequestMapping("/api/ai")
 public class AiDemoController {
 
+    static final int MAX_METRIC_BATCH_SIZE = 10_000;
+    static final int MAX_PREDICTION_QUERY_LIMIT = 500;
+
     private final CodeGenerationService codeGenService;
     private final TestGenerationService testGenService;
     private final PredictiveCiCdService predictiveCiCdService;
     private final AnomalyDetectionService anomalyDetectionService;
+    private final IncidentPredictionService incidentPredictionService;
 
     @Autowired
     public AiDemoController(
             CodeGenerationService codeGenService,
             TestGenerationService testGenService,
             PredictiveCiCdService predictiveCiCdService,
-            AnomalyDetectionService anomalyDetectionService) {
+            AnomalyDetectionService anomalyDetectionService,
+            IncidentPredictionService incidentPredictionService) {
         this.codeGenService = codeGenService;
         this.testGenService = testGenService;
         this.predictiveCiCdService = predictiveCiCdService;
         this.anomalyDetectionService = anomalyDetectionService;
+        this.incidentPredictionService = incidentPredictionService;
     }
 
     /**
@@ -60,6 +70,24 @@ public class AiDemoController {
         return ResponseEntity.ok(testCases);
     }
     
+    /**
+     * Endpoint to generate tests for every class in a package, written under the configured
+     * output directory instead of returned
+     */
+    @PostMapping("/generate-tests/package")
+    public ResponseEntity<TestGenerationService.GenerationReport> generatePackageTests(
+            @RequestParam String basePackage) {
+        try {
+            return ResponseEntity.ok(testGenService.generatePackageTests(basePackage));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     /**
      * Endpoint to demonstrate AI-powered build risk assessment
      */
@@ -71,6 +99,21 @@ public class AiDemoController {
         return ResponseEntity.ok(assessment);
     }
     
+    /**
+     * Endpoint to record the outcome of a finished build for later risk assessments
+     */
+    @PostMapping("/build-outcomes")
+    public ResponseEntity<Void> recordBuildOutcome(@RequestBody PredictiveCiCdService.BuildOutcome outcome) {
+        try {
+            predictiveCiCdService.recordBuildOutcome(outcome);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+    
     /**
      * Endpoint to submit a metric for anomaly detection
      */
@@ -93,4 +136,42 @@ public class AiDemoController {
         
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Endpoint to submit a batch of metrics as a JSON or Smile (application/x-jackson-smile) array;
+     * the response lists only the anomalous points
+     */
+    @PostMapping("/detect-anomalies")
+    public ResponseEntity<AnomalyDetectionService.BatchResult> detectAnomalies(
+            @RequestBody List<AnomalyDetectionService.MetricDataPoint> metrics) {
+        if (metrics.size() > MAX_METRIC_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(anomalyDetectionService.detectAnomalies(metrics));
+    }
+    
+    /**
+     * Endpoint to read the rolling statistics kept for a metric
+     */
+    @GetMapping("/metrics/{name}/statistics")
+    public ResponseEntity<RollingStatistics.Snapshot> getMetricStatistics(@PathVariable String name) {
+        RollingStatistics.Snapshot statistics = anomalyDetectionService.getStatistics(name);
+        if (statistics == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(statistics);
+    }
+    
+    /**
+     * Endpoint to list recently published incident predictions, newest first
+     */
+    @GetMapping("/incidents/predictions")
+    public ResponseEntity<List<IncidentPredictionService.IncidentPrediction>> getIncidentPredictions(
+            @RequestParam(required = false) String metric,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_PREDICTION_QUERY_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(incidentPredictionService.getRecentPredictions(metric, limit));
+    }
+}
@@ -1,15 +1,29 @@
 package com.example.aidevops.incident;
 
 import com.example.aidevops.monitoring.AnomalyDetectionService.MetricDataPoint;
+import com.example.aidevops.monitoring.MetricRingBuffer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 /**
  * Service that uses AI to predict potential incidents before they occur
@@ -19,156 +33,429 @@ import java.util.Map;
 public class IncidentPredictionService {
     private static final Logger logger = LoggerFactory.getLogger(IncidentPredictionService.class);
     
-    private final Map<String, List<MetricDataPoint>> metricHistory = new HashMap<>();
+    // Shards are the unit of parallel work; several per core keeps workers busy when shards are uneven
+    private static final int SHARD_COUNT = 64;
+    private static final int HISTORY_CAPACITY = 128;
+    private static final int MIN_HISTORY = 10;
+    private static final int TREND_WINDOW = 5;
+    public static final double DEFAULT_FORECAST_HALF_LIFE_MINUTES = 15.0;
+    // Two-sided 95% interval on time-to-threshold
+    private static final double FORECAST_Z = 1.96;
+    
+    private final Timer passTimer = Metrics.timer("ai.incident.prediction.pass", "trigger", "scheduled");
+    private final Timer eventPassTimer = Metrics.timer("ai.incident.prediction.pass", "trigger", "event");
+    
+    @Value("${ai.incident.prediction.event-driven.enabled:false}")
+    private boolean eventDriven;
+    @Value("${ai.incident.prediction.event-driven.latency-budget-ms:200}")
+    private long latencyBudgetMillis = 200;
+    
+    // Lock-free per-metric ring buffers; recording never waits on the analysis pass
+    private final ShardedMetricStore metricStore = new ShardedMetricStore(SHARD_COUNT, HISTORY_CAPACITY);
+    private final ForkJoinPool analysisPool;
+    // Trend fit and rule per metric; the fit advances each pass with the samples recorded since the last one
+    private final Map<String, SeriesState> series = new ConcurrentHashMap<>();
+    // Rule table in match order, each metric resolved against it once
+    private final List<IncidentRule> rules;
+    private final double forecastHalfLifeMinutes;
+    private final PredictionSink predictionSink;
+    private final boolean ownsPredictionSink;
+    
+    // Event-driven evaluation: set when a series turns dirty, cleared by the evaluator before it drains
+    private final AtomicBoolean evaluationRequested = new AtomicBoolean();
+    private volatile Thread evaluator;
+    
+    public IncidentPredictionService() {
+        this(0);
+    }
+    
+    public IncidentPredictionService(int parallelism) {
+        this(parallelism, DEFAULT_FORECAST_HALF_LIFE_MINUTES);
+    }
+    
+    public IncidentPredictionService(int parallelism, double forecastHalfLifeMinutes) {
+        this(parallelism, forecastHalfLifeMinutes, new PredictionSink(), true, IncidentRule.defaults());
+    }
+    
+    /**
+     * @param parallelism analysis worker threads; 0 means one per available processor
+     * @param forecastHalfLifeMinutes age at which a sample counts half as much in the trend fit
+     * @param predictionSink receives every prediction made
+     * @param ruleProperties rule table; the built-in rules if empty
+     */
+    @Autowired
+    public IncidentPredictionService(
+            @Value("${ai.incident.prediction.parallelism:0}") int parallelism,
+            @Value("${ai.incident.prediction.forecast-half-life-minutes:15}") double forecastHalfLifeMinutes,
+            PredictionSink predictionSink,
+            IncidentRuleProperties ruleProperties) {
+        this(parallelism, forecastHalfLifeMinutes, predictionSink, false,
+                ruleProperties.getRules().isEmpty() ? IncidentRule.defaults() : ruleProperties.getRules());
+    }
+    
+    private IncidentPredictionService(int parallelism, double forecastHalfLifeMinutes,
+                                      PredictionSink predictionSink, boolean ownsPredictionSink,
+                                      List<IncidentRule> rules) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("parallelism must not be negative: " + parallelism);
+        }
+        if (!(forecastHalfLifeMinutes > 0)) {
+            throw new IllegalArgumentException("forecast-half-life-minutes must be positive: " + forecastHalfLifeMinutes);
+        }
+        for (IncidentRule rule : rules) {
+            rule.validate();
+        }
+        this.rules = List.copyOf(rules);
+        this.forecastHalfLifeMinutes = forecastHalfLifeMinutes;
+        this.predictionSink = predictionSink;
+        this.ownsPredictionSink = ownsPredictionSink;
+        this.analysisPool = newAnalysisPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+    }
+    
+    private static ForkJoinPool newAnalysisPool(int parallelism) {
+        AtomicInteger threadIds = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("incident-analysis-" + threadIds.incrementAndGet());
+            return thread;
+        }, null, false);
+    }
+    
+    @PostConstruct
+    public void initialize() {
+        if (eventDriven) {
+            startEventDrivenEvaluation(latencyBudgetMillis);
+        }
+    }
+    
+    /**
+     * Starts re-evaluating series shortly after they are recorded to instead of waiting for the
+     * scheduled pass. Recording marks a series dirty; one evaluator thread wakes on the first mark,
+     * waits half the latency budget so a burst of samples is evaluated once, then evaluates every
+     * dirty series on the analysis pool. Idle series are never revisited.
+     * @param latencyBudgetMillis target time from a sample being recorded to it being evaluated
+     */
+    public synchronized void startEventDrivenEvaluation(long latencyBudgetMillis) {
+        if (latencyBudgetMillis < 1) {
+            throw new IllegalArgumentException("latency-budget-ms must be positive: " + latencyBudgetMillis);
+        }
+        if (evaluator != null) {
+            return;
+        }
+        long debounceNanos = TimeUnit.MILLISECONDS.toNanos(latencyBudgetMillis) / 2;
+        Thread thread = new Thread(() -> evaluateLoop(debounceNanos), "incident-evaluator");
+        thread.setDaemon(true);
+        evaluator = thread;
+        // Pick up series that turned dirty before the evaluator existed
+        evaluationRequested.set(true);
+        thread.start();
+        logger.info("Event-driven incident prediction enabled (latency budget {} ms)", latencyBudgetMillis);
+    }
+    
+    private void evaluateLoop(long debounceNanos) {
+        Thread self = Thread.currentThread();
+        while (evaluator == self) {
+            if (!evaluationRequested.get()) {
+                LockSupport.park(this);
+                continue;
+            }
+            // Let the rest of a burst arrive before evaluating
+            long deadline = System.nanoTime() + debounceNanos;
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0 && evaluator == self) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            evaluationRequested.set(false);
+            try {
+                evaluateDirtySeries();
+            } catch (RuntimeException e) {
+                logger.error("Event-driven incident prediction failed: {}", e.getMessage());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        Thread thread;
+        synchronized (this) {
+            thread = evaluator;
+            evaluator = null;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        analysisPool.shutdown();
+        if (ownsPredictionSink) {
+            predictionSink.close();
+        }
+    }
     
     /**
      * Records a new metric data point for incident prediction analysis
      */
     public void recordMetric(String metricName, double value) {
-        MetricDataPoint dataPoint = new MetricDataPoint(metricName, value);
-        
-        // Initialize the history list if it doesn't exist
-        metricHistory.putIfAbsent(metricName, new ArrayList<>());
-        
-        // Add the data point to the history
-        List<MetricDataPoint> history = metricHistory.get(metricName);
-        history.add(dataPoint);
-        
-        // Keep history to a manageable size
-        if (history.size() > 100) {
-            history.remove(0);
+        recordMetric(metricName, value, System.currentTimeMillis());
+    }
+    
+    /**
+     * Records a metric data point sampled at {@code timestamp} (epoch millis)
+     */
+    public void recordMetric(String metricName, double value, long timestamp) {
+        if (metricStore.record(metricName, timestamp, value)) {
+            requestEvaluation();
         }
     }
     
+    private void requestEvaluation() {
+        Thread thread = evaluator;
+        if (thread != null && !evaluationRequested.get() && evaluationRequested.compareAndSet(false, true)) {
+            LockSupport.unpark(thread);
+        }
+    }
+    
+    public void recordMetric(MetricDataPoint metric) {
+        recordMetric(metric.getName(), metric.getValue(), metric.getTimestamp());
+    }
+    
     /**
-     * Scheduled task to analyze metrics and predict potential incidents
+     * Most recent predictions published to the sink, newest first
+     * @param metricName only predictions for this metric, or null for all
+     */
+    public List<IncidentPrediction> getRecentPredictions(String metricName, int limit) {
+        return predictionSink.recent(metricName, limit);
+    }
+    
+    /**
+     * Current trend forecast for a metric as of the last analysis pass, or null if it has none yet
+     */
+    public TrendForecaster.TimeToThreshold forecast(String metricName, double threshold) {
+        SeriesState state = series.get(metricName);
+        if (state == null) {
+            return null;
+        }
+        synchronized (state) {
+            return state.forecaster.timeToThreshold(threshold, FORECAST_Z);
+        }
+    }
+    
+    /**
+     * Scheduled task to analyze metrics and predict potential incidents.
+     * Skipped while event-driven evaluation is running, since that already covers every series
+     * that changed.
      */
     @Scheduled(fixedRate = 60000) // Run every minute
-    public void predictIncidents() {
+    public void runScheduledPrediction() {
+        if (evaluator == null) {
+            predictIncidents();
+        }
+    }
+    
+    /**
+     * Analyzes every metric and predicts potential incidents.
+     * Shards of the metric store are analyzed in parallel on the analysis pool;
+     * the pass duration is exported as the {@code ai.incident.prediction.pass} timer.
+     * @return the predictions from this pass
+     */
+    public List<IncidentPrediction> predictIncidents() {
         logger.info("Running incident prediction analysis...");
         
-        List<IncidentPrediction> predictions = new ArrayList<>();
+        long start = System.nanoTime();
+        List<IncidentPrediction> predictions = analysisPool.invoke(new ShardAnalysis(0, metricStore.shardCount(), false));
+        passTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         
-        // Analyze each metric for patterns that might indicate future incidents
-        for (Map.Entry<String, List<MetricDataPoint>> entry : metricHistory.entrySet()) {
-            String metricName = entry.getKey();
-            List<MetricDataPoint> history = entry.getValue();
-            
-            if (history.size() < 10) {
-                continue; // Not enough data to make a prediction
+        // Alerts and remediation hang off the prediction sink
+        if (!predictions.isEmpty()) {
+            logger.info("Predicted {} potential incidents", predictions.size());
+        }
+        return predictions;
+    }
+    
+    /**
+     * Analyzes only the metrics recorded to since they were last analyzed
+     * @return the predictions for those metrics
+     */
+    public List<IncidentPrediction> evaluateDirtySeries() {
+        long start = System.nanoTime();
+        List<IncidentPrediction> predictions = analysisPool.invoke(new ShardAnalysis(0, metricStore.shardCount(), true));
+        eventPassTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        
+        if (!predictions.isEmpty()) {
+            logger.debug("Predicted {} potential incidents", predictions.size());
+        }
+        return predictions;
+    }
+    
+    /**
+     * Analyzes a range of shards, splitting it in half until each task covers one shard
+     */
+    private final class ShardAnalysis extends RecursiveTask<List<IncidentPrediction>> {
+        private final int fromShard;
+        private final int toShard;
+        private final boolean dirtyOnly;
+        
+        private ShardAnalysis(int fromShard, int toShard, boolean dirtyOnly) {
+            this.fromShard = fromShard;
+            this.toShard = toShard;
+            this.dirtyOnly = dirtyOnly;
+        }
+        
+        @Override
+        protected List<IncidentPrediction> compute() {
+            if (toShard - fromShard > 1) {
+                int middle = (fromShard + toShard) >>> 1;
+                ShardAnalysis left = new ShardAnalysis(fromShard, middle, dirtyOnly);
+                left.fork();
+                List<IncidentPrediction> predictions = new ShardAnalysis(middle, toShard, dirtyOnly).compute();
+                List<IncidentPrediction> leftPredictions = left.join();
+                if (predictions.isEmpty()) {
+                    return leftPredictions;
+                }
+                predictions.addAll(leftPredictions);
+                return predictions;
             }
             
-            // Check for concerning trends
-            IncidentPrediction prediction = analyzeTrend(metricName, history);
-            if (prediction != null) {
-                predictions.add(prediction);
-                logger.warn("Potential incident predicted: {}", prediction);
+            List<IncidentPrediction> predictions = new ArrayList<>();
+            long[] timestamps = new long[HISTORY_CAPACITY];
+            double[] values = new double[HISTORY_CAPACITY];
+            // Analyze each metric for patterns that might indicate future incidents,
+            // reading a snapshot of its latest values
+            ShardedMetricStore.SeriesVisitor analysis = (metricName, historySize, recentValues, size) -> {
+                SeriesState state = series.computeIfAbsent(metricName,
+                        name -> new SeriesState(metricStore.series(name), forecastHalfLifeMinutes, resolveRule(name)));
+                state.catchUp(timestamps, values);
+                if (state.rule == null || historySize < MIN_HISTORY || size < 2) {
+                    return; // No rule applies, or not enough data to make a prediction
+                }
+                
+                // Check for concerning trends
+                IncidentPrediction prediction = analyzeTrend(metricName, recentValues, size, state);
+                if (prediction != null) {
+                    predictions.add(prediction);
+                    // The sink logs it unless the same incident was reported recently
+                    predictionSink.publish(prediction);
+                }
+            };
+            if (dirtyOnly) {
+                metricStore.forEachDirtySeries(fromShard, TREND_WINDOW, analysis);
+            } else {
+                metricStore.forEachSeries(fromShard, TREND_WINDOW, analysis);
             }
+            return predictions;
         }
-        
-        // In a real application, we would trigger alerts or remediation actions
-        if (!predictions.isEmpty()) {
-            logger.warn("Predicted {} potential incidents", predictions.size());
+    }
+    
+    /**
+     * First rule in the table that applies to the metric, or null if none does
+     */
+    private IncidentRule resolveRule(String metricName) {
+        for (IncidentRule rule : rules) {
+            if (rule.matches(metricName)) {
+                return rule;
+            }
         }
+        return null;
     }
     
     /**
      * Analyzes a metric trend to predict potential incidents.
      * In a real application, this would use an SLM trained on historical incident data.
      */
-    private IncidentPrediction analyzeTrend(String metricName, List<MetricDataPoint> history) {
+    private IncidentPrediction analyzeTrend(String metricName, double[] recentValues, int size, SeriesState state) {
         // Simple trend analysis for the example
         // In a real application, this would be handled by a machine learning model
         
-        // Calculate the rate of change
-        List<Double> recentValues = new ArrayList<>();
-        for (int i = Math.max(0, history.size() - 5); i < history.size(); i++) {
-            recentValues.add(history.get(i).getValue());
-        }
-        
-        double averageChange = calculateAverageChange(recentValues);
+        // Calculate the rate of change over the latest values
+        double averageChange = calculateAverageChange(recentValues, size);
         
-        // Detect if this metric is showing a concerning trend
-        if (isConcerningTrend(metricName, averageChange, recentValues)) {
-            return createIncidentPrediction(metricName, averageChange, recentValues);
+        // Detect if this metric is showing a concerning trend, by the thresholds of its rule
+        if (state.rule.isConcerning(averageChange, recentValues[size - 1])) {
+            return createIncidentPrediction(metricName, averageChange, recentValues[size - 1], state);
         }
         
         return null;
     }
     
-    private double calculateAverageChange(List<Double> values) {
-        if (values.size() < 2) return 0;
-        
-        double sum = 0;
-        for (int i = 1; i < values.size(); i++) {
-            sum += values.get(i) - values.get(i-1);
-        }
+    private double calculateAverageChange(double[] values, int size) {
+        if (size < 2) return 0;
         
-        return sum / (values.size() - 1);
+        // The sum of consecutive differences telescopes to last - first
+        return (values[size - 1] - values[0]) / (size - 1);
     }
     
-    private boolean isConcerningTrend(String metricName, double averageChange, List<Double> values) {
-        // Different metrics may have different thresholds for concern
-        if (metricName.contains("memory") || metricName.contains("cpu")) {
-            // For resource metrics, we're concerned about consistently increasing values
-            return averageChange > 5.0 && values.get(values.size() - 1) > 70.0;
-        } else if (metricName.contains("latency") || metricName.contains("response")) {
-            // For performance metrics, we're concerned about any significant increase
-            return averageChange > 10.0;
-        } else if (metricName.contains("error") || metricName.contains("failure")) {
-            // For error metrics, we're concerned about any increase from zero
-            return averageChange > 0 && values.get(values.size() - 1) > 0;
-        }
-        
-        // Default threshold
-        return Math.abs(averageChange) > 20.0;
-    }
-    
-    private IncidentPrediction createIncidentPrediction(String metricName, double averageChange, List<Double> values) {
+    private IncidentPrediction createIncidentPrediction(String metricName, double averageChange, double lastValue,
+                                                        SeriesState state) {
+        IncidentRule rule = state.rule;
         IncidentPrediction prediction = new IncidentPrediction();
         prediction.setMetricName(metricName);
-        prediction.setCurrentValue(values.get(values.size() - 1));
+        prediction.setCurrentValue(lastValue);
         prediction.setAverageChangeRate(averageChange);
+        prediction.setPredictedAt(System.currentTimeMillis());
+        prediction.setPredictedIncident(rule.getIncident());
+        prediction.setSeverity(rule.getSeverity());
+        prediction.setRecommendedAction(rule.getRecommendedAction());
         
-        // Set prediction details based on the metric type
-        if (metricName.contains("memory")) {
-            prediction.setPredictedIncident("Potential memory leak");
-            prediction.setSeverity("MEDIUM");
-            prediction.setTimeToIncident("~" + estimateTimeToIncident(values, 90.0) + " minutes");
-            prediction.setRecommendedAction("Review recent code changes affecting memory usage");
-        } else if (metricName.contains("cpu")) {
-            prediction.setPredictedIncident("CPU saturation approaching");
-            prediction.setSeverity("HIGH");
-            prediction.setTimeToIncident("~" + estimateTimeToIncident(values, 95.0) + " minutes");
-            prediction.setRecommendedAction("Scale up resources or identify CPU-intensive processes");
-        } else if (metricName.contains("latency")) {
-            prediction.setPredictedIncident("Performance degradation");
-            prediction.setSeverity("MEDIUM");
-            prediction.setTimeToIncident("~" + estimateTimeToIncident(values, values.get(values.size() - 1) * 2) + " minutes");
-            prediction.setRecommendedAction("Check database queries and external service calls");
-        } else {
-            prediction.setPredictedIncident("Anomalous behavior detected");
-            prediction.setSeverity("LOW");
+        double etaThreshold = rule.etaThresholdFor(lastValue);
+        if (Double.isNaN(etaThreshold)) {
             prediction.setTimeToIncident("Unknown");
-            prediction.setRecommendedAction("Monitor the situation");
+        } else {
+            setTimeToIncident(prediction, state, etaThreshold);
         }
         
         return prediction;
     }
     
-    private int estimateTimeToIncident(List<Double> values, double threshold) {
-        if (values.size() < 2) return 99;
-        
-        double lastValue = values.get(values.size() - 1);
-        double averageChange = calculateAverageChange(values);
-        
-        if (averageChange <= 0) return 99; // Not increasing
-        
-        double valueToThreshold = threshold - lastValue;
-        if (valueToThreshold <= 0) return 0; // Already at threshold
+    /**
+     * Sets the ETA from the metric's trend fit; falls back to "Unknown" when the fitted trend is not rising
+     */
+    private void setTimeToIncident(IncidentPrediction prediction, SeriesState state, double threshold) {
+        TrendForecaster.TimeToThreshold eta;
+        synchronized (state) {
+            prediction.setTrendPerMinute(state.forecaster.getSlopePerMinute());
+            eta = state.forecaster.timeToThreshold(threshold, FORECAST_Z);
+        }
+        if (eta == null) {
+            prediction.setTimeToIncident("Unknown");
+            return;
+        }
+        prediction.setTimeToIncident(eta.toString());
+        prediction.setEtaMinutes(eta.getMinutes());
+        prediction.setEtaLowerMinutes(eta.getLowerMinutes());
+        prediction.setEtaUpperMinutes(eta.getUpperMinutes());
+    }
+    
+    /**
+     * Analysis state of one metric: its rule, its trend fit, and the next sample sequence the fit
+     * has not consumed yet
+     */
+    private static final class SeriesState {
+        // Series are never replaced in the store, so the buffer and rule are resolved once
+        private final MetricRingBuffer series;
+        private final IncidentRule rule;
+        private final TrendForecaster forecaster;
+        private long nextSequence;
+        
+        private SeriesState(MetricRingBuffer series, double halfLifeMinutes, IncidentRule rule) {
+            this.series = series;
+            this.rule = rule;
+            this.forecaster = new TrendForecaster(halfLifeMinutes);
+        }
         
-        // Estimate minutes until reaching threshold at current rate of change
-        return (int) Math.ceil(valueToThreshold / averageChange);
+        /**
+         * Feeds the samples appended since the previous call, waiting for any still being written.
+         * Samples overwritten in the meantime are skipped; the buffers are scratch space.
+         */
+        private synchronized void catchUp(long[] timestamps, double[] values) {
+            long last = series.count() - 1;
+            long pending = last - nextSequence + 1;
+            if (pending <= 0) {
+                return;
+            }
+            int copied = series.copySamples(last, (int) Math.min(pending, timestamps.length), timestamps, values);
+            for (int i = 0; i < copied; i++) {
+                forecaster.add(timestamps[i], values[i]);
+            }
+            nextSequence = last + 1;
+        }
     }
     
     public static class IncidentPrediction {
@@ -179,6 +466,11 @@ public class IncidentPredictionService {
         private String severity;
         private String timeToIncident;
         private String recommendedAction;
+        private double trendPerMinute = Double.NaN;
+        private double etaMinutes = Double.NaN;
+        private double etaLowerMinutes = Double.NaN;
+        private double etaUpperMinutes = Double.NaN;
+        private long predictedAt;
         
         // Getters and setters
         public String getMetricName() {
@@ -237,12 +529,57 @@ public class IncidentPredictionService {
             this.recommendedAction = recommendedAction;
         }
         
+        /**
+         * Slope of the fitted trend in value units per minute
+         */
+        public double getTrendPerMinute() {
+            return trendPerMinute;
+        }
+        
+        public void setTrendPerMinute(double trendPerMinute) {
+            this.trendPerMinute = trendPerMinute;
+        }
+        
+        public double getEtaMinutes() {
+            return etaMinutes;
+        }
+        
+        public void setEtaMinutes(double etaMinutes) {
+            this.etaMinutes = etaMinutes;
+        }
+        
+        public double getEtaLowerMinutes() {
+            return etaLowerMinutes;
+        }
+        
+        public void setEtaLowerMinutes(double etaLowerMinutes) {
+            this.etaLowerMinutes = etaLowerMinutes;
+        }
+        
+        public double getEtaUpperMinutes() {
+            return etaUpperMinutes;
+        }
+        
+        public void setEtaUpperMinutes(double etaUpperMinutes) {
+            this.etaUpperMinutes = etaUpperMinutes;
+        }
+        
+        /**
+         * When the prediction was made, in epoch millis
+         */
+        public long getPredictedAt() {
+            return predictedAt;
+        }
+        
+        public void setPredictedAt(long predictedAt) {
+            this.predictedAt = predictedAt;
+        }
+        
         @Override
         public String toString() {
-            return String.format(
-                "Prediction: %s (Severity: %s, ETA: %s), Current value: %.2f, Rate: %.2f, Action: %s",
-                predictedIncident, severity, timeToIncident, currentValue, averageChangeRate, recommendedAction
-            );
+            return "Prediction: " + predictedIncident + " (Severity: " + severity + ", ETA: " + timeToIncident
+                + "), Current value: " + currentValue + ", Rate: " + averageChangeRate
+                + ", Action: " + recommendedAction;
         }
     }
 }
\ No newline at end of file
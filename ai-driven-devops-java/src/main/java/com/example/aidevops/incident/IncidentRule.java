@@ -0,0 +1,191 @@
+package com.example.aidevops.incident;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One row of the incident rule table: which metrics it applies to, when their trend is
+ * concerning, and what to report. Bound from {@code ai.incident.prediction.rules}; the first
+ * rule with a pattern contained in the metric name applies, and a rule with no patterns
+ * matches every metric.
+ */
+public class IncidentRule {
+
+    private String name;
+    private List<String> patterns = new ArrayList<>();
+    // Concerning when the average change per sample exceeds minChange (its magnitude if absoluteChange)
+    private double minChange;
+    private boolean absoluteChange;
+    // ...and the latest value exceeds minValue, if set
+    private Double minValue;
+    private String incident;
+    private String severity;
+    private String recommendedAction;
+    // Level used for the time-to-incident estimate: a fixed value, or a multiple of the current one
+    private Double etaThreshold;
+    private Double etaThresholdFactor;
+
+    public IncidentRule() {
+    }
+
+    private IncidentRule(String name, List<String> patterns, double minChange, boolean absoluteChange, Double minValue,
+                         String incident, String severity, String recommendedAction,
+                         Double etaThreshold, Double etaThresholdFactor) {
+        this.name = name;
+        this.patterns = patterns;
+        this.minChange = minChange;
+        this.absoluteChange = absoluteChange;
+        this.minValue = minValue;
+        this.incident = incident;
+        this.severity = severity;
+        this.recommendedAction = recommendedAction;
+        this.etaThreshold = etaThreshold;
+        this.etaThresholdFactor = etaThresholdFactor;
+    }
+
+    /**
+     * Built-in table used when none is configured; the same rules as application.yml
+     */
+    public static List<IncidentRule> defaults() {
+        return List.of(
+                new IncidentRule("memory", List.of("memory"), 5.0, false, 70.0,
+                        "Potential memory leak", "MEDIUM",
+                        "Review recent code changes affecting memory usage", 90.0, null),
+                new IncidentRule("cpu", List.of("cpu"), 5.0, false, 70.0,
+                        "CPU saturation approaching", "HIGH",
+                        "Scale up resources or identify CPU-intensive processes", 95.0, null),
+                new IncidentRule("latency", List.of("latency"), 10.0, false, null,
+                        "Performance degradation", "MEDIUM",
+                        "Check database queries and external service calls", null, 2.0),
+                new IncidentRule("response", List.of("response"), 10.0, false, null,
+                        "Anomalous behavior detected", "LOW", "Monitor the situation", null, null),
+                new IncidentRule("errors", List.of("error", "failure"), 0.0, false, 0.0,
+                        "Anomalous behavior detected", "LOW", "Monitor the situation", null, null),
+                new IncidentRule("default", List.of(), 20.0, true, null,
+                        "Anomalous behavior detected", "LOW", "Monitor the situation", null, null));
+    }
+
+    /**
+     * Checks the fields a rule needs
+     * @throws IllegalArgumentException naming the rule and the problem
+     */
+    void validate() {
+        String label = name == null ? "unnamed rule" : "rule '" + name + "'";
+        if (incident == null || incident.isBlank() || severity == null || severity.isBlank()) {
+            throw new IllegalArgumentException(label + " needs an incident and a severity");
+        }
+        if (etaThreshold != null && etaThresholdFactor != null) {
+            throw new IllegalArgumentException(label + " sets both eta-threshold and eta-threshold-factor");
+        }
+        if (patterns == null) {
+            patterns = new ArrayList<>();
+        }
+    }
+
+    boolean matches(String metricName) {
+        if (patterns.isEmpty()) {
+            return true;
+        }
+        for (String pattern : patterns) {
+            if (metricName.contains(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isConcerning(double averageChange, double lastValue) {
+        double change = absoluteChange ? Math.abs(averageChange) : averageChange;
+        return change > minChange && (minValue == null || lastValue > minValue);
+    }
+
+    /**
+     * Level the time-to-incident is estimated against, or NaN if this rule reports no ETA
+     */
+    double etaThresholdFor(double lastValue) {
+        if (etaThreshold != null) {
+            return etaThreshold;
+        }
+        return etaThresholdFactor != null ? lastValue * etaThresholdFactor : Double.NaN;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    public void setPatterns(List<String> patterns) {
+        this.patterns = patterns;
+    }
+
+    public double getMinChange() {
+        return minChange;
+    }
+
+    public void setMinChange(double minChange) {
+        this.minChange = minChange;
+    }
+
+    public boolean isAbsoluteChange() {
+        return absoluteChange;
+    }
+
+    public void setAbsoluteChange(boolean absoluteChange) {
+        this.absoluteChange = absoluteChange;
+    }
+
+    public Double getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(Double minValue) {
+        this.minValue = minValue;
+    }
+
+    public String getIncident() {
+        return incident;
+    }
+
+    public void setIncident(String incident) {
+        this.incident = incident;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(String severity) {
+        this.severity = severity;
+    }
+
+    public String getRecommendedAction() {
+        return recommendedAction;
+    }
+
+    public void setRecommendedAction(String recommendedAction) {
+        this.recommendedAction = recommendedAction;
+    }
+
+    public Double getEtaThreshold() {
+        return etaThreshold;
+    }
+
+    public void setEtaThreshold(Double etaThreshold) {
+        this.etaThreshold = etaThreshold;
+    }
+
+    public Double getEtaThresholdFactor() {
+        return etaThresholdFactor;
+    }
+
+    public void setEtaThresholdFactor(Double etaThresholdFactor) {
+        this.etaThresholdFactor = etaThresholdFactor;
+    }
+}
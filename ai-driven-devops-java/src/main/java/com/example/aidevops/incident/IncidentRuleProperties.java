@@ -0,0 +1,26 @@
+package com.example.aidevops.incident;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incident rule table from {@code ai.incident.prediction.rules}, in match order.
+ * An empty table means {@link IncidentRule#defaults()}.
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.incident.prediction")
+public class IncidentRuleProperties {
+
+    private List<IncidentRule> rules = new ArrayList<>();
+
+    public List<IncidentRule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<IncidentRule> rules) {
+        this.rules = rules;
+    }
+}
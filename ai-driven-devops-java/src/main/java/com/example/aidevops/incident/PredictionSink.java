@@ -0,0 +1,226 @@
+package com.example.aidevops.incident;
+
+import com.example.aidevops.incident.IncidentPredictionService.IncidentPrediction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Output stream for incident predictions.
+ *
+ * A prediction for the same (metric, incident type) as one published within the suppression
+ * window is counted and dropped, so an ongoing condition is reported once per window instead of
+ * on every analysis pass. Published predictions go onto a bounded queue that one dispatcher
+ * thread drains to the log and to subscribers; when the queue is full, new predictions are
+ * dropped and counted rather than stalling the analysis. The most recent published predictions
+ * are kept for queries. The dispatcher also forgets publish times once they fall out of the
+ * suppression window, so the dedup map only holds incidents seen recently.
+ *
+ * Every sink reports its own queue size, tagged with a per-instance {@code sink} number: a
+ * service that owns a private sink runs alongside the shared bean, and an untagged gauge would
+ * only ever show whichever registered first.
+ */
+@Component
+public class PredictionSink implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PredictionSink.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final long DEFAULT_SUPPRESSION_MINUTES = 15;
+    public static final int DEFAULT_RECENT_CAPACITY = 500;
+    private static final int DISPATCH_BATCH_SIZE = 256;
+    private static final long MIN_PRUNE_INTERVAL_MILLIS = 1000;
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final Counter published = Metrics.counter("ai.incident.predictions", "outcome", "published");
+    private final Counter suppressed = Metrics.counter("ai.incident.predictions", "outcome", "suppressed");
+    private final Counter dropped = Metrics.counter("ai.incident.predictions", "outcome", "dropped");
+
+    private final BlockingQueue<IncidentPrediction> queue;
+    private final long suppressionMillis;
+    private final int recentCapacity;
+    private final LongSupplier clock;
+    // Last publish time per (metric, incident type)
+    private final Map<String, Long> lastPublished = new ConcurrentHashMap<>();
+    // Newest first; guarded by itself
+    private final Deque<IncidentPrediction> recent = new ArrayDeque<>();
+    private final List<Consumer<IncidentPrediction>> subscribers = new CopyOnWriteArrayList<>();
+    private final Gauge queueSize;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    public PredictionSink() {
+        this(DEFAULT_QUEUE_CAPACITY, DEFAULT_SUPPRESSION_MINUTES, DEFAULT_RECENT_CAPACITY);
+    }
+
+    @Autowired
+    public PredictionSink(
+            @Value("${ai.incident.prediction.sink.queue-capacity:1024}") int queueCapacity,
+            @Value("${ai.incident.prediction.sink.suppression-minutes:15}") long suppressionMinutes,
+            @Value("${ai.incident.prediction.sink.recent-capacity:500}") int recentCapacity) {
+        this(queueCapacity, TimeUnit.MINUTES.toMillis(suppressionMinutes), recentCapacity, System::currentTimeMillis);
+    }
+
+    PredictionSink(int queueCapacity, long suppressionMillis, int recentCapacity, LongSupplier clock) {
+        if (queueCapacity < 1 || recentCapacity < 1 || suppressionMillis < 0) {
+            throw new IllegalArgumentException("queue and recent capacities must be positive and suppression not negative");
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.suppressionMillis = suppressionMillis;
+        this.recentCapacity = recentCapacity;
+        this.clock = clock;
+        this.queueSize = Gauge.builder("ai.incident.prediction.queue.size", queue, BlockingQueue::size)
+                .tag("sink", Integer.toString(INSTANCES.getAndIncrement()))
+                .register(Metrics.globalRegistry);
+        this.dispatcher = new Thread(this::dispatchLoop, "incident-prediction-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Publishes a prediction unless the same incident was published for the metric within the
+     * suppression window or the queue is full. Never blocks.
+     * @return true if the prediction was published
+     */
+    public boolean publish(IncidentPrediction prediction) {
+        String key = prediction.getMetricName() + '\u0000' + prediction.getPredictedIncident();
+        long now = clock.getAsLong();
+        boolean[] fresh = new boolean[1];
+        lastPublished.compute(key, (k, last) -> {
+            if (last != null && now - last < suppressionMillis) {
+                return last;
+            }
+            fresh[0] = true;
+            return now;
+        });
+        if (!fresh[0]) {
+            suppressed.increment();
+            return false;
+        }
+        if (!queue.offer(prediction)) {
+            // Let the next pass try again instead of suppressing an incident nobody saw
+            lastPublished.remove(key, now);
+            dropped.increment();
+            return false;
+        }
+        synchronized (recent) {
+            recent.addFirst(prediction);
+            if (recent.size() > recentCapacity) {
+                recent.removeLast();
+            }
+        }
+        published.increment();
+        return true;
+    }
+
+    /**
+     * Delivers every published prediction to {@code subscriber} on the dispatcher thread
+     */
+    public void subscribe(Consumer<IncidentPrediction> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Most recent published predictions, newest first
+     * @param metricName only predictions for this metric, or null for all
+     */
+    public List<IncidentPrediction> recent(String metricName, int limit) {
+        List<IncidentPrediction> result = new ArrayList<>(Math.min(limit, recentCapacity));
+        synchronized (recent) {
+            for (IncidentPrediction prediction : recent) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (metricName == null || metricName.equals(prediction.getMetricName())) {
+                    result.add(prediction);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void dispatchLoop() {
+        List<IncidentPrediction> batch = new ArrayList<>(DISPATCH_BATCH_SIZE);
+        long lastPruned = clock.getAsLong();
+        while (running) {
+            try {
+                IncidentPrediction first = queue.poll(100, TimeUnit.MILLISECONDS);
+                long now = clock.getAsLong();
+                if (now - lastPruned >= Math.max(suppressionMillis, MIN_PRUNE_INTERVAL_MILLIS)) {
+                    lastPruned = now;
+                    pruneExpired();
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, DISPATCH_BATCH_SIZE - 1);
+                for (IncidentPrediction prediction : batch) {
+                    dispatch(prediction);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Drops publish times older than the suppression window; they no longer suppress anything
+     */
+    void pruneExpired() {
+        long now = clock.getAsLong();
+        // Removes by (key, value), so a publish that just refreshed the entry keeps it
+        lastPublished.values().removeIf(last -> now - last >= suppressionMillis);
+    }
+
+    /**
+     * Number of (metric, incident type) pairs whose last publish time is still held
+     */
+    int trackedIncidents() {
+        return lastPublished.size();
+    }
+
+    private void dispatch(IncidentPrediction prediction) {
+        logger.warn("Potential incident predicted for {}: {} (severity: {}, ETA: {}), current value: {}, rate: {}, action: {}",
+                prediction.getMetricName(), prediction.getPredictedIncident(), prediction.getSeverity(),
+                prediction.getTimeToIncident(), prediction.getCurrentValue(), prediction.getAverageChangeRate(),
+                prediction.getRecommendedAction());
+        for (Consumer<IncidentPrediction> subscriber : subscribers) {
+            try {
+                subscriber.accept(prediction);
+            } catch (RuntimeException e) {
+                logger.error("Incident prediction subscriber failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        Metrics.globalRegistry.remove(queueSize);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.aidevops.incident;
+
+import com.example.aidevops.monitoring.MetricRingBuffer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Concurrent store of recent samples per metric, split into shards by metric name.
+ *
+ * Every series is a lock-free {@link MetricRingBuffer}, so recording never blocks and never
+ * waits on readers. Readers copy each series up to the sequence that was current when they
+ * reached it, waiting out any append still in flight below it, which gives a gap-free window
+ * per series without holding writers off. Shards are also the unit of work for the analysis pass.
+ *
+ * Recording also marks the series dirty; each shard queues its dirty series once until they
+ * are drained, so an evaluator can revisit only the series that changed.
+ */
+public class ShardedMetricStore {
+
+    private final ConcurrentHashMap<String, Series>[] shards;
+    private final Queue<Series>[] dirtySeries;
+    private final int shardMask;
+    private final int seriesCapacity;
+
+    /**
+     * @param shardCount number of shards; rounded up to a power of two
+     * @param seriesCapacity samples kept per metric
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedMetricStore(int shardCount, int seriesCapacity) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        int size = shardCount == 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.shards = new ConcurrentHashMap[size];
+        this.dirtySeries = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+            dirtySeries[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.shardMask = size - 1;
+        this.seriesCapacity = seriesCapacity;
+    }
+
+    /**
+     * Appends a sample to the metric's series, creating the series on first use
+     * @return true if this sample made the series dirty, false if it already was
+     */
+    public boolean record(String metricName, long timestamp, double value) {
+        Objects.requireNonNull(metricName, "metricName");
+        int shard = shardOf(metricName);
+        Series series = shards[shard].computeIfAbsent(metricName, name -> new Series(name, seriesCapacity));
+        series.samples.append(timestamp, value);
+        // Marked after the append, so whoever drains the mark sees the sample
+        if (!series.dirty.get() && series.dirty.compareAndSet(false, true)) {
+            dirtySeries[shard].offer(series);
+            return true;
+        }
+        return false;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public int seriesCount() {
+        int count = 0;
+        for (Map<String, Series> shard : shards) {
+            count += shard.size();
+        }
+        return count;
+    }
+
+    /**
+     * The series for a metric, or null if nothing was recorded for it
+     */
+    public MetricRingBuffer series(String metricName) {
+        Series series = shards[shardOf(metricName)].get(metricName);
+        return series == null ? null : series.samples;
+    }
+
+    /**
+     * Copy of the latest (up to) n values of a metric, oldest first; empty if unknown
+     */
+    public double[] snapshot(String metricName, int n) {
+        MetricRingBuffer series = series(metricName);
+        if (series == null) {
+            return new double[0];
+        }
+        double[] values = new double[Math.min(n, series.capacity())];
+        int size = series.copyValues(series.count() - 1, values.length, values);
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Visits every series in every shard
+     * @see #forEachSeries(int, int, SeriesVisitor)
+     */
+    public void forEachSeries(int n, SeriesVisitor visitor) {
+        for (int shard = 0; shard < shards.length; shard++) {
+            forEachSeries(shard, n, visitor);
+        }
+    }
+
+    /**
+     * Visits every series in one shard with its latest (up to) n values, oldest first.
+     * The values array is reused between calls and only valid during the visit.
+     */
+    public void forEachSeries(int shard, int n, SeriesVisitor visitor) {
+        double[] values = new double[Math.min(n, seriesCapacity)];
+        for (Series series : shards[shard].values()) {
+            visit(series, values, visitor);
+        }
+    }
+
+    /**
+     * Like {@link #forEachSeries(int, int, SeriesVisitor)}, but only for the series recorded to since
+     * they were last drained, clearing their dirty mark. A sample recorded during the visit marks
+     * the series dirty again.
+     */
+    public void forEachDirtySeries(int shard, int n, SeriesVisitor visitor) {
+        double[] values = new double[Math.min(n, seriesCapacity)];
+        Series series;
+        while ((series = dirtySeries[shard].poll()) != null) {
+            series.dirty.set(false);
+            visit(series, values, visitor);
+        }
+    }
+
+    private static void visit(Series series, double[] values, SeriesVisitor visitor) {
+        MetricRingBuffer samples = series.samples;
+        long count = samples.count();
+        if (count == 0) {
+            return;
+        }
+        int size = samples.copyValues(count - 1, values.length, values);
+        visitor.visit(series.name, Math.min(count, samples.capacity()), values, size);
+    }
+
+    private int shardOf(String metricName) {
+        int h = metricName.hashCode();
+        return (h ^ (h >>> 16)) & shardMask;
+    }
+
+    private static final class Series {
+        private final String name;
+        private final MetricRingBuffer samples;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        private Series(String name, int capacity) {
+            this.name = name;
+            this.samples = new MetricRingBuffer(capacity);
+        }
+    }
+
+    /**
+     * Receives one series during a snapshot read
+     */
+    @FunctionalInterface
+    public interface SeriesVisitor {
+        /**
+         * @param historySize samples currently held for the series
+         * @param values latest values, oldest first; only the first {@code size} entries are valid
+         */
+        void visit(String metricName, long historySize, double[] values, int size);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.aidevops.incident;
+
+/**
+ * Linear trend of one metric fitted by exponentially weighted least squares over real sample times.
+ *
+ * Each sample's weight decays with its age ({@code 0.5} per {@code halfLifeMinutes}), so the fit
+ * follows the recent trend and handles irregular sampling: a sample arriving after a long gap
+ * outweighs the older ones by exactly the elapsed time, not by the number of samples. The state
+ * is six weighted sums with the time origin kept at the latest sample, so each update is O(1)
+ * and the sums do not lose precision as timestamps grow.
+ *
+ * Confidence intervals treat the weighted fit as an ordinary one over the effective sample
+ * size {@code (sum w)^2 / sum w^2}, which is exact for equal weights.
+ * Not thread-safe; callers serialize updates per metric.
+ */
+public final class TrendForecaster {
+
+    private static final double MILLIS_PER_MINUTE = 60_000.0;
+
+    private final double decayPerMinute;
+
+    private long count;
+    private long lastTimestamp;
+
+    // Weighted sums with t in minutes relative to lastTimestamp (so t <= 0)
+    private double sumW;
+    private double sumW2;
+    private double sumT;
+    private double sumTT;
+    private double sumY;
+    private double sumTY;
+    private double sumYY;
+
+    public TrendForecaster(double halfLifeMinutes) {
+        if (!(halfLifeMinutes > 0)) {
+            throw new IllegalArgumentException("halfLifeMinutes must be positive: " + halfLifeMinutes);
+        }
+        this.decayPerMinute = Math.log(2) / halfLifeMinutes;
+    }
+
+    /**
+     * Adds a sample; a timestamp older than the latest one is treated as arriving at the latest time
+     */
+    public void add(long timestamp, double value) {
+        if (count > 0) {
+            double elapsed = Math.max(0, timestamp - lastTimestamp) / MILLIS_PER_MINUTE;
+            if (elapsed > 0) {
+                // Move the origin to the new sample, then age every existing weight
+                sumTT += elapsed * (elapsed * sumW - 2 * sumT);
+                sumTY -= elapsed * sumY;
+                sumT -= elapsed * sumW;
+                double decay = Math.exp(-decayPerMinute * elapsed);
+                sumW *= decay;
+                sumW2 *= decay * decay;
+                sumT *= decay;
+                sumTT *= decay;
+                sumY *= decay;
+                sumTY *= decay;
+                sumYY *= decay;
+                lastTimestamp = timestamp;
+            }
+        } else {
+            lastTimestamp = timestamp;
+        }
+        // The new sample sits at t = 0, so it adds nothing to the t sums
+        sumW += 1;
+        sumW2 += 1;
+        sumY += value;
+        sumYY += value * value;
+        count++;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Effective number of samples behind the fit
+     */
+    public double getEffectiveSampleSize() {
+        return sumW2 == 0 ? 0 : sumW * sumW / sumW2;
+    }
+
+    /**
+     * Fitted slope in value units per minute, or NaN until samples span some time
+     */
+    public double getSlopePerMinute() {
+        double stt = centredTT();
+        return stt > 0 ? centredTY() / stt : Double.NaN;
+    }
+
+    /**
+     * Fitted value at the latest sample time
+     */
+    public double getLevel() {
+        if (sumW == 0) {
+            return Double.NaN;
+        }
+        double slope = getSlopePerMinute();
+        double meanY = sumY / sumW;
+        return Double.isNaN(slope) ? meanY : meanY - slope * (sumT / sumW);
+    }
+
+    /**
+     * Estimated standard deviation of the samples around the fitted line, or NaN with too few samples
+     */
+    public double getResidualStdDev() {
+        double n = getEffectiveSampleSize();
+        double stt = centredTT();
+        if (n <= 2 || stt <= 0) {
+            return Double.NaN;
+        }
+        double syy = sumYY - sumY * sumY / sumW;
+        double residual = Math.max(0, syy - centredTY() * centredTY() / stt);
+        return Math.sqrt(residual / sumW * n / (n - 2));
+    }
+
+    /**
+     * Minutes from the latest sample until the fitted line reaches {@code threshold}, with a
+     * confidence interval of {@code z} standard errors (delta method on level and slope)
+     * @return the estimate, or null if the trend is flat, falling, or not yet measurable
+     */
+    public TimeToThreshold timeToThreshold(double threshold, double z) {
+        double slope = getSlopePerMinute();
+        double sigma = getResidualStdDev();
+        if (!(slope > 0) || Double.isNaN(sigma)) {
+            return null;
+        }
+        double level = getLevel();
+        if (level >= threshold) {
+            return new TimeToThreshold(0, 0, 0, slope);
+        }
+        double eta = (threshold - level) / slope;
+        // Variance of the fitted value at t = eta, scaled by 1 / slope^2, per effective sample
+        double meanT = sumT / sumW;
+        double fitVariance = sigma * sigma * (sumW / getEffectiveSampleSize())
+                * (1 / sumW + (eta - meanT) * (eta - meanT) / centredTT());
+        double halfWidth = z * Math.sqrt(fitVariance) / slope;
+        return new TimeToThreshold(eta, Math.max(0, eta - halfWidth), eta + halfWidth, slope);
+    }
+
+    private double centredTT() {
+        return sumW == 0 ? 0 : sumTT - sumT * sumT / sumW;
+    }
+
+    private double centredTY() {
+        return sumW == 0 ? 0 : sumTY - sumT * sumY / sumW;
+    }
+
+    /**
+     * Forecast time until a metric reaches a threshold, in minutes from its latest sample
+     */
+    public static class TimeToThreshold {
+        private final double minutes;
+        private final double lowerMinutes;
+        private final double upperMinutes;
+        private final double slopePerMinute;
+
+        public TimeToThreshold(double minutes, double lowerMinutes, double upperMinutes, double slopePerMinute) {
+            this.minutes = minutes;
+            this.lowerMinutes = lowerMinutes;
+            this.upperMinutes = upperMinutes;
+            this.slopePerMinute = slopePerMinute;
+        }
+
+        public double getMinutes() {
+            return minutes;
+        }
+
+        public double getLowerMinutes() {
+            return lowerMinutes;
+        }
+
+        public double getUpperMinutes() {
+            return upperMinutes;
+        }
+
+        public double getSlopePerMinute() {
+            return slopePerMinute;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("~%.0f minutes (%.0f-%.0f)", minutes, lowerMinutes, upperMinutes);
+        }
+    }
+}
@@ -1,15 +1,28 @@
 package com.example.aidevops.monitoring;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
-import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.factory.Nd4j;
+import org.deeplearning4j.util.ModelSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 /**
  * Service for detecting anomalies in application metrics using a
@@ -19,20 +32,111 @@ import jakarta.annotation.PostConstruct;
 public class AnomalyDetectionService {
     private static final Logger logger = LoggerFactory.getLogger(AnomalyDetectionService.class);
     
-    private MultiLayerNetwork model;
-    private final List<MetricDataPoint> metricHistory = new ArrayList<>();
+    private static final int HISTORY_CAPACITY = 1024;
+    private static final int MIN_HISTORY = 30;
+    public static final int DEFAULT_WINDOW_SIZE = 10;
+    public static final double DEFAULT_Z_THRESHOLD = 3.0;
+    public static final double DEFAULT_QUANTILE = 0.99;
+    
+    // Model input: z-score vs window, z-score vs EWMA, position within window [min, max]
+    static final int FEATURE_COUNT = 3;
+    private static final float FEATURE_LIMIT = 10f;
+    private static final int WARMING_UP = MetricHistory.NO_VERDICT;
+    private static final int NORMAL = 0;
+    private static final int ANOMALOUS = 1;
+    // Largest batch whose scratch arrays are kept for reuse by the calling thread
+    private static final int MAX_POOLED_BATCH = 4096;
+    
+    private final Counter modelScored = Metrics.counter("ai.anomaly.scored", "path", "model");
+    private final Counter fallbackScored = Metrics.counter("ai.anomaly.scored", "path", "threshold");
+    private final Counter disagreements = Metrics.counter("ai.anomaly.model.disagreements");
+    
+    @Value("${ai.monitoring.anomaly-detection.model-path:}")
+    private String modelPath = "";
+    @Value("${ai.monitoring.anomaly-detection.threshold:0.7}")
+    private double modelThreshold = 0.7;
+    @Value("${ai.monitoring.anomaly-detection.inference.max-batch-size:64}")
+    private int maxBatchSize = 64;
+    @Value("${ai.monitoring.anomaly-detection.inference.max-batch-wait-micros:0}")
+    private long maxBatchWaitMicros = 0;
+    @Value("${ai.monitoring.anomaly-detection.inference.timeout-ms:50}")
+    private long inferenceTimeoutMillis = 50;
+    
+    private volatile ModelScorer scorer;
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    private final int windowSize;
+    private final double zThreshold;
+    private final double quantile;
+    // Ring-buffer history and rolling statistics per metric name
+    private final Map<String, MetricHistory> metrics = new ConcurrentHashMap<>();
+    
+    public AnomalyDetectionService() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_Z_THRESHOLD, DEFAULT_QUANTILE);
+    }
+    
+    @Autowired
+    public AnomalyDetectionService(
+            @Value("${ai.monitoring.anomaly-detection.window-size:10}") int windowSize,
+            @Value("${ai.monitoring.anomaly-detection.z-threshold:3.0}") double zThreshold,
+            @Value("${ai.monitoring.anomaly-detection.quantile:0.99}") double quantile) {
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("window-size must be at least 2: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        this.zThreshold = zThreshold;
+        this.quantile = quantile;
+    }
     
     @PostConstruct
     public void initialize() {
-        // In a real application, we would load a pre-trained model
         logger.info("Initializing anomaly detection SLM");
         
-        try {
-            // This is a placeholder - in a real app we would load an actual model
-            // model = ModelSerializer.restoreMultiLayerNetwork("models/anomaly_detection_model.zip");
-            logger.info("Anomaly detection model loaded successfully");
-        } catch (Exception e) {
-            logger.error("Failed to load anomaly detection model: {}", e.getMessage());
+        if (modelPath == null || modelPath.isBlank()) {
+            logger.info("No anomaly detection model configured; using threshold scoring");
+            return;
+        }
+        loadModel(modelPath);
+    }
+    
+    /**
+     * Loads a DL4J MultiLayerNetwork (ModelSerializer zip) taking FEATURE_COUNT inputs and
+     * returning an anomaly score in [0, 1] in its first output column; samples scoring at or
+     * above the configured threshold are anomalies. Replaces any previously loaded model.
+     * @param location a Spring resource location such as classpath:... or file:...
+     * @return true if the model was loaded; otherwise threshold scoring stays in effect
+     */
+    public boolean loadModel(String location) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        if (!resource.exists()) {
+            logger.warn("Anomaly detection model not found at {}; using threshold scoring", location);
+            return false;
+        }
+        
+        try (InputStream in = resource.getInputStream()) {
+            MultiLayerNetwork network = ModelSerializer.restoreMultiLayerNetwork(in, false);
+            if (network.layerInputSize(0) != FEATURE_COUNT) {
+                logger.error("Anomaly detection model at {} expects {} inputs, not {}; using threshold scoring",
+                        location, network.layerInputSize(0), FEATURE_COUNT);
+                return false;
+            }
+            ModelScorer previous = scorer;
+            scorer = new ModelScorer(network, FEATURE_COUNT, maxBatchSize, maxBatchWaitMicros, inferenceTimeoutMillis);
+            if (previous != null) {
+                previous.close();
+            }
+            logger.info("Anomaly detection model loaded from {}", location);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to load anomaly detection model from {}: {}", location, e.getMessage());
+            return false;
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        ModelScorer current = scorer;
+        if (current != null) {
+            current.close();
         }
     }
     
@@ -42,62 +146,176 @@ public class AnomalyDetectionService {
      * @return true if an anomaly is detected, false otherwise
      */
     public boolean detectAnomaly(MetricDataPoint metric) {
-        metricHistory.add(metric);
+        ModelScorer modelScorer = scorer;
+        float[] features = modelScorer == null ? null : scratch.get().row;
+        int threshold = historyFor(metricKey(metric.getName())).record(metric.getTimestamp(), metric.getValue(), features, 0);
         
-        // Only start anomaly detection once we have enough history
-        if (metricHistory.size() < 30) {
-            return false;
+        boolean isAnomaly;
+        if (threshold == WARMING_UP) {
+            isAnomaly = false;
+        } else if (modelScorer == null) {
+            isAnomaly = threshold == ANOMALOUS;
+        } else {
+            isAnomaly = decide(modelScorer.score(features), threshold == ANOMALOUS);
         }
         
-        // Keep history to a manageable size
-        if (metricHistory.size() > 1000) {
-            metricHistory.remove(0);
+        if (isAnomaly) {
+            logger.warn("Anomaly detected for metric: {}, value: {}", 
+                        metric.getName(), metric.getValue());
         }
         
-        // In a real implementation, we would prepare the data for the model
-        float[] features = prepareFeatures(metric);
+        return isAnomaly;
+    }
+    
+    /**
+     * Scores a batch of data points in order and returns only the anomalous ones.
+     * Consecutive points for the same metric reuse one state lookup, and with a model loaded
+     * every scorable point goes through a single batched forward pass.
+     */
+    public BatchResult detectAnomalies(List<MetricDataPoint> metrics) {
+        int size = metrics.size();
+        ModelScorer modelScorer = scorer;
+        Scratch buffers = (size <= MAX_POOLED_BATCH ? scratch.get() : new Scratch()).ensureCapacity(size);
+        float[] features = modelScorer == null ? null : buffers.features;
+        int[] thresholds = buffers.thresholds;
         
-        // We would use the model to predict anomalies
-        // Instead, we'll use a simple threshold approach for the example
-        boolean isAnomaly = isSimpleAnomaly(metric);
+        String currentKey = null;
+        MetricHistory history = null;
+        for (int i = 0; i < size; i++) {
+            MetricDataPoint metric = metrics.get(i);
+            String key = metricKey(metric.getName());
+            if (!key.equals(currentKey)) {
+                currentKey = key;
+                history = historyFor(key);
+            }
+            thresholds[i] = history.record(metric.getTimestamp(), metric.getValue(), features, i * FEATURE_COUNT);
+        }
         
-        if (isAnomaly) {
-            logger.warn("Anomaly detected for metric: {}, value: {}", 
-                        metric.getName(), metric.getValue());
+        double[] scores = null;
+        if (modelScorer != null) {
+            scores = buffers.scores;
+            try {
+                modelScorer.scoreBatch(features, size, scores);
+            } catch (RuntimeException e) {
+                logger.error("Anomaly model inference failed: {}", e.getMessage());
+                Arrays.fill(scores, 0, size, Double.NaN);
+            }
         }
         
+        List<MetricDataPoint> anomalies = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (thresholds[i] == WARMING_UP) {
+                continue;
+            }
+            boolean isAnomaly = scores == null ? thresholds[i] == ANOMALOUS : decide(scores[i], thresholds[i] == ANOMALOUS);
+            if (isAnomaly) {
+                anomalies.add(metrics.get(i));
+            }
+        }
+        
+        if (!anomalies.isEmpty()) {
+            logger.warn("{} anomalies detected in a batch of {} metrics", anomalies.size(), size);
+        }
+        return new BatchResult(size, anomalies);
+    }
+    
+    /**
+     * The threshold rule's verdict for a sample against the window before it (WARMING_UP until
+     * there is enough history). When a feature buffer is given, the model features for the sample
+     * are written at the offset. Called by the metric's MetricHistory, which folds the sample into
+     * the statistics afterwards.
+     */
+    private int evaluate(RollingStatistics statistics, double value, float[] features, int offset) {
+        if (statistics.getCount() < MIN_HISTORY) {
+            return WARMING_UP;
+        }
+        if (features != null) {
+            prepareFeatures(statistics, value, features, offset);
+        }
+        return isSimpleAnomaly(statistics, value) ? ANOMALOUS : NORMAL;
+    }
+    
+    /**
+     * Model verdict when a score is available, else the threshold verdict; disagreements are counted
+     */
+    private boolean decide(double modelScore, boolean thresholdVerdict) {
+        if (Double.isNaN(modelScore)) {
+            fallbackScored.increment();
+            return thresholdVerdict;
+        }
+        modelScored.increment();
+        boolean isAnomaly = modelScore >= modelThreshold;
+        if (isAnomaly != thresholdVerdict) {
+            disagreements.increment();
+        }
         return isAnomaly;
     }
     
-    private float[] prepareFeatures(MetricDataPoint metric) {
-        // This would transform the raw metric into features suitable for the model
-        // For simplicity, we're returning a dummy array
-        return new float[]{(float)metric.getValue(), 0.0f, 0.0f};
+    private static void prepareFeatures(RollingStatistics statistics, double value, float[] features, int offset) {
+        features[offset] = standardize(value, statistics.getMean(), statistics.getStdDev());
+        features[offset + 1] = standardize(value, statistics.getEwmaMean(), statistics.getEwmaStdDev());
+        double range = statistics.getMax() - statistics.getMin();
+        features[offset + 2] = range > 0 ? clamp((value - statistics.getMin()) / range) : 0f;
     }
     
-    private boolean isSimpleAnomaly(MetricDataPoint metric) {
-        // Simple anomaly detection logic for demonstration
-        if (metricHistory.size() < 10) return false;
-        
-        // Calculate the mean of the last 10 values
-        double sum = 0;
-        for (int i = metricHistory.size() - 10; i < metricHistory.size(); i++) {
-            sum += metricHistory.get(i).getValue();
+    private static float standardize(double value, double mean, double stdDev) {
+        if (stdDev > 0) {
+            return clamp((value - mean) / stdDev);
         }
-        double mean = sum / 10;
-        
-        // If the current value deviates significantly from the mean, mark it as an anomaly
-        double threshold = 3.0; // 3 standard deviations
-        return Math.abs(metric.getValue() - mean) > threshold * calculateStdDev(mean);
+        return value == mean ? 0f : (value > mean ? FEATURE_LIMIT : -FEATURE_LIMIT);
+    }
+    
+    private static float clamp(double feature) {
+        return (float) Math.max(-FEATURE_LIMIT, Math.min(FEATURE_LIMIT, feature));
+    }
+    
+    /**
+     * Number of samples currently held for a metric (at most the history capacity)
+     */
+    public int getHistorySize(String metricName) {
+        MetricHistory history = metrics.get(metricKey(metricName));
+        return history == null ? 0 : history.size();
+    }
+    
+    /**
+     * Current rolling statistics for a metric, or null if it has never been reported
+     */
+    public RollingStatistics.Snapshot getStatistics(String metricName) {
+        MetricHistory history = metrics.get(metricKey(metricName));
+        return history == null ? null : history.snapshot();
+    }
+    
+    private MetricHistory historyFor(String key) {
+        return metrics.computeIfAbsent(key,
+                name -> new MetricHistory(HISTORY_CAPACITY, windowSize, quantile, FEATURE_COUNT, this::evaluate));
     }
     
-    private double calculateStdDev(double mean) {
-        // Calculate standard deviation from the last 10 values
-        double sum = 0;
-        for (int i = metricHistory.size() - 10; i < metricHistory.size(); i++) {
-            sum += Math.pow(metricHistory.get(i).getValue() - mean, 2);
+    private static String metricKey(String metricName) {
+        return metricName == null ? "" : metricName;
+    }
+    
+    private boolean isSimpleAnomaly(RollingStatistics statistics, double value) {
+        // If the value deviates from the window mean by more than zThreshold standard deviations
+        return Math.abs(value - statistics.getMean()) > zThreshold * statistics.getStdDev();
+    }
+    
+    /**
+     * Per-thread feature, verdict and score arrays, grown to the largest batch seen up to MAX_POOLED_BATCH
+     */
+    private static final class Scratch {
+        private final float[] row = new float[FEATURE_COUNT];
+        private float[] features = new float[0];
+        private int[] thresholds = new int[0];
+        private double[] scores = new double[0];
+        
+        private Scratch ensureCapacity(int size) {
+            if (thresholds.length < size) {
+                features = new float[size * FEATURE_COUNT];
+                thresholds = new int[size];
+                scores = new double[size];
+            }
+            return this;
         }
-        return Math.sqrt(sum / 10);
     }
     
     public static class MetricDataPoint {
@@ -106,9 +324,23 @@ public class AnomalyDetectionService {
         private final long timestamp;
         
         public MetricDataPoint(String name, double value) {
+            this(name, value, System.currentTimeMillis());
+        }
+        
+        public MetricDataPoint(String name, double value, long timestamp) {
             this.name = name;
             this.value = value;
-            this.timestamp = System.currentTimeMillis();
+            this.timestamp = timestamp;
+        }
+        
+        /**
+         * JSON/Smile binding for batched ingestion; a missing timestamp means "now"
+         */
+        @JsonCreator
+        static MetricDataPoint of(@JsonProperty("name") String name,
+                                  @JsonProperty("value") double value,
+                                  @JsonProperty("timestamp") Long timestamp) {
+            return new MetricDataPoint(name, value, timestamp == null ? System.currentTimeMillis() : timestamp);
         }
         
         public String getName() {
@@ -123,4 +355,25 @@ public class AnomalyDetectionService {
             return timestamp;
         }
     }
+    
+    /**
+     * Outcome of scoring a batch: how many points were received and which were anomalous
+     */
+    public static class BatchResult {
+        private final int received;
+        private final List<MetricDataPoint> anomalies;
+        
+        public BatchResult(int received, List<MetricDataPoint> anomalies) {
+            this.received = received;
+            this.anomalies = anomalies;
+        }
+        
+        public int getReceived() {
+            return received;
+        }
+        
+        public List<MetricDataPoint> getAnomalies() {
+            return anomalies;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.example.aidevops.monitoring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sample history and rolling statistics of one metric.
+ *
+ * The history is a {@link MetricRingBuffer}: every sample is appended to it lock-free, and it is
+ * the only place a sample is stored. The statistics are folded in from the ring in sequence order
+ * by a combiner: after appending, the writer holding the combiner lock folds every sample appended
+ * so far, evaluating each against the statistics before it. A writer that finds the lock taken
+ * registers a per-thread ticket under its sample's sequence, spins briefly for the combiner to
+ * fill it in, and only then queues for the lock; under contention one lock hand-off covers many
+ * samples. The combiner only ever waits for a ticket to be registered, which each writer does
+ * before it can wait for anything, so it never waits on a blocked thread.
+ *
+ * Each writer has at most one sample waiting to be folded, so a sample is only lost (unscored and
+ * left out of the statistics) if more threads than the ring's capacity record the same metric at
+ * once.
+ */
+final class MetricHistory {
+
+    /**
+     * Result of a sample that could no longer be evaluated
+     */
+    static final int NO_VERDICT = -1;
+
+    private static final int MAX_SPINS = 128;
+    // A thread records one sample at a time, so one ticket per thread serves every metric
+    private static final ThreadLocal<Ticket> TICKETS = ThreadLocal.withInitial(Ticket::new);
+    private static final VarHandle APPLIED;
+
+    static {
+        try {
+            APPLIED = MethodHandles.lookup().findVarHandle(MetricHistory.class, "applied", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Verdict for a sample against the statistics of the samples before it; writes
+     * {@code featureCount} features at the offset unless features is null
+     */
+    @FunctionalInterface
+    interface Rule {
+        int evaluate(RollingStatistics statistics, double value, float[] features, int offset);
+    }
+
+    private final MetricRingBuffer ring;
+    private final RollingStatistics statistics;
+    private final Rule rule;
+    private final int featureCount;
+    private final int mask;
+
+    private final ReentrantLock combiner = new ReentrantLock();
+    // Guarded by combiner
+    private final double[] drained;
+    // Sequences below this have been folded into the statistics (or lost); only written by the
+    // combiner, with a release store since waiting writers only need to see it eventually
+    private volatile long applied;
+    // Ticket of the writer waiting for each ring slot's sample; stale entries are told apart by sequence
+    private final AtomicReferenceArray<Ticket> waiting;
+
+    MetricHistory(int capacity, int windowSize, double quantile, int featureCount, Rule rule) {
+        this.ring = new MetricRingBuffer(capacity);
+        this.statistics = new RollingStatistics(windowSize, quantile);
+        this.rule = rule;
+        this.featureCount = featureCount;
+        this.mask = ring.capacity() - 1;
+        this.drained = new double[ring.capacity()];
+        this.waiting = new AtomicReferenceArray<>(ring.capacity());
+    }
+
+    /**
+     * Appends a sample and returns its verdict once it has been folded into the statistics
+     * @param featuresDst if not null, receives the sample's features at the offset
+     * @return the rule's verdict, or NO_VERDICT if the sample was lost
+     */
+    int record(long timestamp, double value, float[] featuresDst, int offset) {
+        long sequence = ring.append(timestamp, value);
+        if (combiner.tryLock()) {
+            return combineHeld(sequence, value, featuresDst, offset);
+        }
+        Ticket ticket = TICKETS.get().register(sequence, featuresDst != null, featureCount);
+        waiting.setRelease((int) sequence & mask, ticket);
+        for (int spins = 0; spins < MAX_SPINS; spins++) {
+            if (ticket.done || applied > sequence) {
+                return ticket.collect(featuresDst, offset, featureCount);
+            }
+            if (combiner.tryLock()) {
+                return combineHeld(sequence, value, featuresDst, offset);
+            }
+            Thread.onSpinWait();
+        }
+        combiner.lock();
+        if (ticket.done || applied > sequence) {
+            combiner.unlock();
+            return ticket.collect(featuresDst, offset, featureCount);
+        }
+        return combineHeld(sequence, value, featuresDst, offset);
+    }
+
+    /**
+     * Folds every appended sample, returning the caller's own verdict directly; releases the lock
+     */
+    private int combineHeld(long own, double value, float[] featuresDst, int offset) {
+        try {
+            long start = applied;
+            long end = ring.count();
+            if (start == own && end == own + 1) {
+                // Nobody else is waiting: no need to read the sample back from the ring
+                APPLIED.setRelease(this, end);
+                return evaluate(value, featuresDst, offset);
+            }
+            int verdict = NO_VERDICT;
+            int copied = ring.copyValues(end - 1, (int) Math.min(end - start, drained.length), drained);
+            // Samples in [start, end - copied) were overwritten in the ring before they could be folded
+            long first = end - copied;
+            for (int i = 0; i < copied; i++) {
+                long sequence = first + i;
+                if (sequence == own) {
+                    verdict = evaluate(drained[i], featuresDst, offset);
+                } else {
+                    Ticket ticket = awaitTicket(sequence);
+                    ticket.verdict = evaluate(drained[i], ticket.wantsFeatures ? ticket.features : null, 0);
+                    ticket.done = true;
+                }
+            }
+            APPLIED.setRelease(this, end);
+            return verdict;
+        } finally {
+            combiner.unlock();
+        }
+    }
+
+    private int evaluate(double value, float[] features, int offset) {
+        int verdict = rule.evaluate(statistics, value, features, offset);
+        statistics.add(value);
+        return verdict;
+    }
+
+    /**
+     * The ticket of the writer of a sample; it registers right after failing to take the lock
+     */
+    private Ticket awaitTicket(long sequence) {
+        int slot = (int) sequence & mask;
+        int spins = 0;
+        Ticket ticket;
+        while ((ticket = waiting.getAcquire(slot)) == null || ticket.sequence != sequence) {
+            if (++spins < MAX_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return ticket;
+    }
+
+    /**
+     * Number of samples currently held in the history (at most its capacity)
+     */
+    int size() {
+        return (int) Math.min(ring.count(), ring.capacity());
+    }
+
+    /**
+     * Statistics of every sample folded in so far
+     */
+    RollingStatistics.Snapshot snapshot() {
+        combiner.lock();
+        try {
+            return statistics.snapshot();
+        } finally {
+            combiner.unlock();
+        }
+    }
+
+    /**
+     * Where a combiner leaves the result of a waiting writer's sample
+     */
+    private static final class Ticket {
+        private volatile long sequence = -1;
+        private float[] features = new float[0];
+        private boolean wantsFeatures;
+        private int verdict;
+        private volatile boolean done;
+
+        private Ticket register(long sequence, boolean wantsFeatures, int featureCount) {
+            if (wantsFeatures && features.length < featureCount) {
+                features = new float[featureCount];
+            }
+            this.wantsFeatures = wantsFeatures;
+            done = false;
+            this.sequence = sequence;
+            return this;
+        }
+
+        /**
+         * The verdict once filled in, or NO_VERDICT if the combiner moved past a lost sample
+         */
+        private int collect(float[] featuresDst, int offset, int featureCount) {
+            if (!done) {
+                return NO_VERDICT;
+            }
+            if (featuresDst != null) {
+                System.arraycopy(features, 0, featuresDst, offset, featureCount);
+            }
+            return verdict;
+        }
+    }
+}
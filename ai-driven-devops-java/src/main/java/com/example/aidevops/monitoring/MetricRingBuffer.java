@@ -0,0 +1,153 @@
+package com.example.aidevops.monitoring;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-capacity history of (timestamp, value) samples for a single metric.
+ *
+ * Samples live in primitive arrays, so appending is O(1) and allocation-free.
+ * Writers are lock-free: each claims a sequence number with one atomic increment
+ * and publishes its slot by storing that sequence in {@code published}. Readers
+ * validate a slot's sequence before and after reading it (the same scheme as a
+ * StampedLock optimistic read) and skip slots that are unpublished or were
+ * overwritten mid-read. A slot can only be written by two threads at once if the
+ * buffer laps while a writer is stalled, which needs {@code capacity} concurrent
+ * appends on one metric.
+ */
+public final class MetricRingBuffer {
+
+    private static final long UNPUBLISHED = -1L;
+
+    private final int mask;
+    private final long[] timestamps;
+    private final double[] values;
+    private final AtomicLongArray published;
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * @param capacity number of samples kept; rounded up to a power of two
+     */
+    public MetricRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.timestamps = new long[size];
+        this.values = new double[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, UNPUBLISHED);
+        }
+    }
+
+    /**
+     * Appends a sample, overwriting the oldest one once the buffer is full
+     * @return the sequence number assigned to the sample (0 for the first sample)
+     */
+    public long append(long timestamp, double value) {
+        long sequence = cursor.getAndIncrement();
+        int slot = (int) sequence & mask;
+        // The fence keeps the sample's stores after this one, so no full barrier is needed
+        published.setOpaque(slot, UNPUBLISHED);
+        VarHandle.storeStoreFence();
+        timestamps[slot] = timestamp;
+        values[slot] = value;
+        published.setRelease(slot, sequence);
+        return sequence;
+    }
+
+    /**
+     * Total number of samples ever appended, including overwritten ones
+     */
+    public long count() {
+        return cursor.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Copies the values with sequences in (last - n, last] into dst, oldest first. Every sequence
+     * up to {@code last} must already be claimed (e.g. {@code last = count() - 1}); a slot still
+     * being written is waited for. If writers lap the buffer during the copy, the values older
+     * than the overwritten slot are dropped, so the result is always a gap-free run ending at last.
+     * @return the number of values copied
+     */
+    public int copyValues(long last, int n, double[] dst) {
+        int copied = 0;
+        long first = Math.max(0, last - Math.min(n, Math.min(dst.length, capacity())) + 1);
+        for (long sequence = first; sequence <= last; sequence++) {
+            int slot = (int) sequence & mask;
+            if (awaitPublished(slot, sequence)) {
+                double value = values[slot];
+                VarHandle.loadLoadFence();
+                if (published.get(slot) == sequence) {
+                    dst[copied++] = value;
+                    continue;
+                }
+            }
+            copied = 0;
+        }
+        return copied;
+    }
+
+    /**
+     * Like {@link #copyValues} but copies timestamps along with values
+     * @return the number of samples copied
+     */
+    public int copySamples(long last, int n, long[] timestampsDst, double[] valuesDst) {
+        int copied = 0;
+        int limit = Math.min(timestampsDst.length, valuesDst.length);
+        long first = Math.max(0, last - Math.min(n, Math.min(limit, capacity())) + 1);
+        for (long sequence = first; sequence <= last; sequence++) {
+            int slot = (int) sequence & mask;
+            if (awaitPublished(slot, sequence)) {
+                long timestamp = timestamps[slot];
+                double value = values[slot];
+                VarHandle.loadLoadFence();
+                if (published.get(slot) == sequence) {
+                    timestampsDst[copied] = timestamp;
+                    valuesDst[copied++] = value;
+                    continue;
+                }
+            }
+            copied = 0;
+        }
+        return copied;
+    }
+
+    /**
+     * Waits until the slot's claimed writer has published the sequence
+     * @return true if the slot holds the sequence, false if a later lap has overwritten it
+     */
+    private boolean awaitPublished(int slot, long sequence) {
+        long current;
+        int spins = 0;
+        // UNPUBLISHED and the previous lap's sequence are both below a claimed sequence
+        while ((current = published.getAcquire(slot)) < sequence) {
+            if (++spins < 128) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return current == sequence;
+    }
+
+    /**
+     * Timestamp of the sample with the given sequence, or -1 if it is no longer (or not yet) held
+     */
+    public long timestampAt(long sequence) {
+        int slot = (int) sequence & mask;
+        if (published.getAcquire(slot) != sequence) {
+            return -1L;
+        }
+        long timestamp = timestamps[slot];
+        VarHandle.loadLoadFence();
+        return published.get(slot) == sequence ? timestamp : -1L;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.aidevops.monitoring;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a DL4J network on the CPU over rows of features and returns the first output column per row.
+ *
+ * Single rows submitted concurrently are queued and coalesced by one worker thread into
+ * micro-batches of up to {@code maxBatchSize} rows, waiting at most {@code maxBatchWaitMicros}
+ * after the first row, so each network call is one INDArray forward pass. Callers wait at most
+ * {@code timeoutMillis} and get NaN when the queue is full or the deadline passes, which the
+ * caller treats as "use the threshold fallback". MultiLayerNetwork is not thread-safe, so every
+ * forward pass is serialized on the network.
+ *
+ * Each caller thread reuses one queued row (feature buffer plus completion slot) and parks until
+ * the worker publishes its score, so steady-state scoring allocates nothing. A row whose caller
+ * gave up is never reused, so a late result cannot leak into the caller's next request.
+ */
+final class ModelScorer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ModelScorer.class);
+
+    private final MultiLayerNetwork model;
+    private final int featureCount;
+    private final int maxBatchSize;
+    private final long maxBatchWaitNanos;
+    private final long timeoutMillis;
+    private final BlockingQueue<PendingRow> queue;
+    private final ThreadLocal<PendingRow> rows;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Guarded by the model lock
+    private final INDArray input;
+
+    // Only touched by the worker thread
+    private final List<PendingRow> batch;
+    private final float[] batchFeatures;
+
+    ModelScorer(MultiLayerNetwork model, int featureCount, int maxBatchSize,
+                long maxBatchWaitMicros, long timeoutMillis) {
+        this.model = model;
+        this.featureCount = featureCount;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxBatchWaitMicros);
+        this.timeoutMillis = timeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(maxBatchSize * 16);
+        this.rows = ThreadLocal.withInitial(() -> new PendingRow(featureCount));
+        this.batch = new ArrayList<>(maxBatchSize);
+        this.batchFeatures = new float[maxBatchSize * featureCount];
+        this.input = Nd4j.create(DataType.FLOAT, maxBatchSize, featureCount);
+        this.worker = new Thread(this::drainLoop, "anomaly-model-scorer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Scores one row through the micro-batcher
+     * @return the model output, or NaN if it was not available within the timeout
+     */
+    double score(float[] features) {
+        PendingRow row = rows.get();
+        long ticket = ++row.ticket;
+        System.arraycopy(features, 0, row.features, 0, featureCount);
+        if (!queue.offer(row)) {
+            return Double.NaN;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (row.completed != ticket) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                // The worker may still hold this row, so the next call gets a fresh one
+                rows.remove();
+                return Double.NaN;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+        return row.result;
+    }
+
+    /**
+     * Scores rows already laid out row-major in {@code features}, one forward pass per
+     * {@code maxBatchSize} rows, through the reused input array
+     * @param scores receives one output per row
+     */
+    void scoreBatch(float[] features, int rows, double[] scores) {
+        synchronized (model) {
+            for (int offset = 0; offset < rows; offset += maxBatchSize) {
+                int n = Math.min(maxBatchSize, rows - offset);
+                for (int i = 0; i < n; i++) {
+                    int base = (offset + i) * featureCount;
+                    for (int j = 0; j < featureCount; j++) {
+                        input.putScalar(i, j, features[base + j]);
+                    }
+                }
+                INDArray rowsIn = n == maxBatchSize ? input : input.get(NDArrayIndex.interval(0, n), NDArrayIndex.all());
+                INDArray output = model.output(rowsIn, false);
+                for (int i = 0; i < n; i++) {
+                    scores[offset + i] = output.getDouble(i, 0);
+                }
+            }
+        }
+    }
+
+    private void drainLoop() {
+        double[] scores = new double[maxBatchSize];
+        while (running) {
+            try {
+                PendingRow first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxBatchWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingRow next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                int rows = batch.size();
+                for (int i = 0; i < rows; i++) {
+                    System.arraycopy(batch.get(i).features, 0, batchFeatures, i * featureCount, featureCount);
+                }
+                scoreBatch(batchFeatures, rows, scores);
+                for (int i = 0; i < rows; i++) {
+                    batch.get(i).complete(scores[i]);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Anomaly model inference failed: {}", e.getMessage());
+                for (PendingRow row : batch) {
+                    row.complete(Double.NaN);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private static final class PendingRow {
+        private final float[] features;
+        private final Thread owner = Thread.currentThread();
+        // Written by the owner only, and only while the row is not queued
+        private long ticket;
+        private double result;
+        private volatile long completed;
+
+        private PendingRow(int featureCount) {
+            this.features = new float[featureCount];
+        }
+
+        /**
+         * Publishes the result for the current ticket and wakes the owner
+         */
+        private void complete(double score) {
+            result = score;
+            completed = ticket;
+            LockSupport.unpark(owner);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.aidevops.monitoring;
+
+/**
+ * Online statistics for one metric, updated in constant time per sample:
+ * <ul>
+ *   <li>mean and variance over the last {@code windowSize} samples (sliding Welford update)</li>
+ *   <li>EWMA mean and variance with alpha = 2 / (windowSize + 1)</li>
+ *   <li>min and max over the window (monotonic deques, amortized O(1))</li>
+ *   <li>an estimate of one quantile over the whole stream (P-square sketch)</li>
+ * </ul>
+ * Not thread-safe; callers serialize updates per metric.
+ */
+public final class RollingStatistics {
+
+    private final int windowSize;
+    private final double[] window;
+    private final double alpha;
+    private long count;
+
+    private double mean;
+    private double m2;
+
+    private double ewmaMean;
+    private double ewmaVariance;
+
+    // Deques of sample sequence numbers, stored circularly
+    private final long[] minDeque;
+    private final long[] maxDeque;
+    private int minHead;
+    private int minSize;
+    private int maxHead;
+    private int maxSize;
+
+    private final P2Quantile quantile;
+
+    public RollingStatistics(int windowSize, double quantile) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        this.window = new double[windowSize];
+        this.alpha = 2.0 / (windowSize + 1);
+        this.minDeque = new long[windowSize];
+        this.maxDeque = new long[windowSize];
+        this.quantile = new P2Quantile(quantile);
+    }
+
+    public void add(double x) {
+        long sequence = count;
+        int slot = (int) (sequence % windowSize);
+
+        if (sequence >= windowSize) {
+            // Replace the oldest sample: x enters, window[slot] leaves
+            double old = window[slot];
+            double oldMean = mean;
+            mean += (x - old) / windowSize;
+            m2 += (x - old) * (x - mean + old - oldMean);
+            if (m2 < 0) {
+                m2 = 0;
+            }
+        } else {
+            double delta = x - mean;
+            mean += delta / (sequence + 1);
+            m2 += delta * (x - mean);
+        }
+        window[slot] = x;
+
+        if (sequence == 0) {
+            ewmaMean = x;
+        } else {
+            double diff = x - ewmaMean;
+            double increment = alpha * diff;
+            ewmaMean += increment;
+            ewmaVariance = (1 - alpha) * (ewmaVariance + diff * increment);
+        }
+
+        long expired = sequence - windowSize;
+        if (minSize > 0 && minDeque[minHead] <= expired) {
+            minHead = (minHead + 1) % windowSize;
+            minSize--;
+        }
+        while (minSize > 0 && valueAt(minDeque[(minHead + minSize - 1) % windowSize]) >= x) {
+            minSize--;
+        }
+        minDeque[(minHead + minSize++) % windowSize] = sequence;
+
+        if (maxSize > 0 && maxDeque[maxHead] <= expired) {
+            maxHead = (maxHead + 1) % windowSize;
+            maxSize--;
+        }
+        while (maxSize > 0 && valueAt(maxDeque[(maxHead + maxSize - 1) % windowSize]) <= x) {
+            maxSize--;
+        }
+        maxDeque[(maxHead + maxSize++) % windowSize] = sequence;
+
+        quantile.add(x);
+        count++;
+    }
+
+    private double valueAt(long sequence) {
+        return window[(int) (sequence % windowSize)];
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Number of samples currently in the window
+     */
+    public int getWindowCount() {
+        return (int) Math.min(count, windowSize);
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    public double getStdDev() {
+        return count == 0 ? Double.NaN : Math.sqrt(m2 / getWindowCount());
+    }
+
+    public double getEwmaMean() {
+        return count == 0 ? Double.NaN : ewmaMean;
+    }
+
+    public double getEwmaStdDev() {
+        return count == 0 ? Double.NaN : Math.sqrt(ewmaVariance);
+    }
+
+    public double getMin() {
+        return minSize == 0 ? Double.NaN : valueAt(minDeque[minHead]);
+    }
+
+    public double getMax() {
+        return maxSize == 0 ? Double.NaN : valueAt(maxDeque[maxHead]);
+    }
+
+    public double getQuantile() {
+        return quantile.quantile();
+    }
+
+    public double getQuantileEstimate() {
+        return quantile.estimate();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Immutable copy of the statistics at one point in time
+     */
+    public static class Snapshot {
+        private final long count;
+        private final int windowSize;
+        private final double mean;
+        private final double stdDev;
+        private final double ewmaMean;
+        private final double ewmaStdDev;
+        private final double min;
+        private final double max;
+        private final double quantile;
+        private final double quantileEstimate;
+
+        private Snapshot(RollingStatistics stats) {
+            this.count = stats.getCount();
+            this.windowSize = stats.getWindowSize();
+            this.mean = stats.getMean();
+            this.stdDev = stats.getStdDev();
+            this.ewmaMean = stats.getEwmaMean();
+            this.ewmaStdDev = stats.getEwmaStdDev();
+            this.min = stats.getMin();
+            this.max = stats.getMax();
+            this.quantile = stats.getQuantile();
+            this.quantileEstimate = stats.getQuantileEstimate();
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getStdDev() {
+            return stdDev;
+        }
+
+        public double getEwmaMean() {
+            return ewmaMean;
+        }
+
+        public double getEwmaStdDev() {
+            return ewmaStdDev;
+        }
+
+        public double getMin() {
+            return min;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public double getQuantile() {
+            return quantile;
+        }
+
+        public double getQuantileEstimate() {
+            return quantileEstimate;
+        }
+    }
+}
@@ -1,22 +1,94 @@
 package com.example.aidevops.testing;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import jakarta.annotation.PreDestroy;
 
 /**
  * Service that uses AI to generate test cases based on code analysis
  * and historical bug patterns.
+ * Whole packages are generated on a pool of worker threads, each writing the tests of one
+ * class to its own file as soon as they are generated, so nothing accumulates in memory.
+ * Only one package run at a time may write to a given target directory.
  */
 @Service
 public class TestGenerationService {
     private static final Logger logger = LoggerFactory.getLogger(TestGenerationService.class);
     
+    // At least two segments, so a root like "com" or "org" cannot make a request scan every jar
+    private static final Pattern PACKAGE_NAME = Pattern.compile("[A-Za-z_$][\\w$]*(\\.[A-Za-z_$][\\w$]*)+");
+    private static final String TEST_CLASS_SUFFIX = "GeneratedTest";
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000;
+    private static final int MAX_REPORTED_FAILURES = 100;
+    
+    private final Counter generatedClasses = Metrics.counter("ai.testing.generated.classes");
+    private final Counter generatedTests = Metrics.counter("ai.testing.generated.tests");
+    
+    private final Path outputDirectory;
+    private final ExecutorService generationPool;
+    private final MetadataReaderFactory metadataReaders = new SimpleMetadataReaderFactory();
+    // Normalized target directories with a package run in progress
+    private final Set<Path> activeTargets = ConcurrentHashMap.newKeySet();
+    
+    public TestGenerationService() {
+        this(0, "target/generated-tests");
+    }
+    
+    /**
+     * @param parallelism generation worker threads; 0 means one per available processor
+     * @param outputDirectory root that package-level generation writes test files under
+     */
+    @Autowired
+    public TestGenerationService(
+            @Value("${ai.testing.auto-generation.parallelism:0}") int parallelism,
+            @Value("${ai.testing.auto-generation.output-dir:target/generated-tests}") String outputDirectory) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("parallelism must not be negative: " + parallelism);
+        }
+        this.outputDirectory = Path.of(outputDirectory);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.generationPool = Executors.newFixedThreadPool(
+                parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism, task -> {
+                    Thread thread = new Thread(task, "test-generation-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+    
     /**
      * Generates test cases for a given class based on AI analysis.
      * This simulates what a tool like Diffblue Cover would do more comprehensively.
@@ -25,7 +97,7 @@ public class TestGenerationService {
      * @return A list of generated test cases
      */
     public List<TestCase> generateTestCases(String className) {
-        logger.info("Generating AI-driven test cases for class: {}", className);
+        logger.debug("Generating AI-driven test cases for class: {}", className);
         
         // In a real implementation, this would analyze the class bytecode or source code
         // and use ML models to identify potential edge cases and vulnerabilities
@@ -48,10 +120,169 @@ public class TestGenerationService {
             "assertThrows(NullPointerException.class, () -> instance.process(null));"
         ));
         
-        logger.info("Generated {} test cases for {}", testCases.size(), className);
+        logger.debug("Generated {} test cases for {}", testCases.size(), className);
         return testCases;
     }
     
+    /**
+     * Generates tests for every concrete top-level class in a package and its subpackages,
+     * writing them under the configured output directory
+     * @see #generatePackageTests(String, Path, Consumer)
+     */
+    public GenerationReport generatePackageTests(String basePackage) throws IOException {
+        return generatePackageTests(basePackage, outputDirectory, testCase -> { });
+    }
+    
+    /**
+     * Generates tests for every concrete top-level class found on the classpath in a package and
+     * its subpackages. Classes are read and generated in parallel; each class's tests are written
+     * to {@code <targetDirectory>/<package path>/<Class>GeneratedTest.java} and handed to
+     * {@code listener} as soon as they are produced. Progress is logged every second.
+     *
+     * @param listener receives every generated test case, concurrently from the worker threads
+     * @return counts and throughput; classes that failed are listed rather than aborting the run
+     * @throws IllegalArgumentException if {@code basePackage} is not a package name of at least two segments
+     * @throws IllegalStateException if another run is writing to the same target directory
+     * @throws IOException if the classpath cannot be scanned or the target directory created
+     */
+    public GenerationReport generatePackageTests(String basePackage, Path targetDirectory,
+                                                 Consumer<TestCase> listener) throws IOException {
+        if (basePackage == null || !PACKAGE_NAME.matcher(basePackage).matches()) {
+            throw new IllegalArgumentException("not a package name of at least two segments: " + basePackage);
+        }
+        Path target = targetDirectory.toAbsolutePath().normalize();
+        if (!activeTargets.add(target)) {
+            throw new IllegalStateException("tests are already being generated into " + target);
+        }
+        try {
+            return runPackageGeneration(basePackage, targetDirectory, listener);
+        } finally {
+            activeTargets.remove(target);
+        }
+    }
+    
+    private GenerationReport runPackageGeneration(String basePackage, Path targetDirectory,
+                                                  Consumer<TestCase> listener) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(targetDirectory);
+        Resource[] classFiles = new PathMatchingResourcePatternResolver().getResources(
+                "classpath*:" + basePackage.replace('.', '/') + "/**/*.class");
+        
+        LongAdder testCount = new LongAdder();
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(generationPool);
+        for (Resource classFile : classFiles) {
+            completion.submit(() -> generateClassTests(classFile, targetDirectory, listener, testCount));
+        }
+        
+        int generated = 0;
+        int skipped = 0;
+        List<String> failures = new ArrayList<>();
+        long lastProgress = start;
+        for (int done = 0; done < classFiles.length; done++) {
+            Future<Integer> result;
+            try {
+                while ((result = completion.poll(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                    logProgress(basePackage, done, classFiles.length, testCount.sum(), start);
+                    lastProgress = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("test generation for " + basePackage + " interrupted", e);
+            }
+            try {
+                if (result.get() < 0) {
+                    skipped++;
+                } else {
+                    generated++;
+                }
+            } catch (ExecutionException e) {
+                if (failures.size() < MAX_REPORTED_FAILURES) {
+                    failures.add(e.getCause().getMessage());
+                }
+            } catch (InterruptedException e) {
+                // Unreachable: the future is already complete
+                Thread.currentThread().interrupt();
+            }
+            if (System.nanoTime() - lastProgress >= TimeUnit.MILLISECONDS.toNanos(PROGRESS_INTERVAL_MILLIS)) {
+                logProgress(basePackage, done + 1, classFiles.length, testCount.sum(), start);
+                lastProgress = System.nanoTime();
+            }
+        }
+        
+        GenerationReport report = new GenerationReport(basePackage, generated, skipped, classFiles.length - generated - skipped,
+                testCount.sum(), System.nanoTime() - start, failures);
+        logger.info("Generated tests for {}: {}", basePackage, report);
+        return report;
+    }
+    
+    private static void logProgress(String basePackage, int done, int total, long tests, long start) {
+        double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        logger.info("Generating tests for {}: {}/{} classes, {} tests ({} classes/s, {} tests/s)",
+                basePackage, done, total, tests, Math.round(done / seconds), Math.round(tests / seconds));
+    }
+    
+    /**
+     * Generates and writes the tests for one class file
+     * @return tests written, or -1 if the class is not one tests are generated for
+     */
+    private int generateClassTests(Resource classFile, Path targetDirectory, Consumer<TestCase> listener,
+                                   LongAdder testCount) throws IOException {
+        ClassMetadata metadata;
+        try {
+            metadata = metadataReaders.getMetadataReader(classFile).getClassMetadata();
+        } catch (IOException e) {
+            throw new IOException("cannot read " + classFile.getDescription() + ": " + e.getMessage(), e);
+        }
+        String className = metadata.getClassName();
+        if (!metadata.isConcrete() || metadata.hasEnclosingClass() || metadata.isAnnotation()
+                || className.endsWith("package-info") || className.endsWith(TEST_CLASS_SUFFIX)) {
+            return -1;
+        }
+        List<TestCase> testCases = generateTestCases(className);
+        int lastDot = className.lastIndexOf('.');
+        String packageName = lastDot < 0 ? "" : className.substring(0, lastDot);
+        String simpleName = className.substring(lastDot + 1);
+        Path directory = targetDirectory.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(directory);
+        try (Writer out = Files.newBufferedWriter(directory.resolve(simpleName + TEST_CLASS_SUFFIX + ".java"), StandardCharsets.UTF_8)) {
+            writeTestClass(out, packageName, simpleName, testCases);
+        } catch (IOException e) {
+            throw new IOException("cannot write tests for " + className + ": " + e.getMessage(), e);
+        }
+        for (TestCase testCase : testCases) {
+            listener.accept(testCase);
+        }
+        testCount.add(testCases.size());
+        generatedClasses.increment();
+        generatedTests.increment(testCases.size());
+        return testCases.size();
+    }
+    
+    private static void writeTestClass(Writer out, String packageName, String simpleName,
+                                       List<TestCase> testCases) throws IOException {
+        if (!packageName.isEmpty()) {
+            out.write("package " + packageName + ";\n\n");
+        }
+        out.write("import org.junit.jupiter.api.Test;\n\n");
+        out.write("import static org.junit.jupiter.api.Assertions.*;\n\n");
+        out.write("/**\n * Generated tests for {@link " + simpleName + "}.\n */\n");
+        out.write("class " + simpleName + TEST_CLASS_SUFFIX + " {\n");
+        for (TestCase testCase : testCases) {
+            out.write("\n    /**\n     * " + testCase.getDescription() + "\n     */\n");
+            out.write("    @Test\n    void " + testCase.getTestName() + "() {\n");
+            for (String line : testCase.getTestCode().split("\n")) {
+                out.write("        " + line + "\n");
+            }
+            out.write("    }\n");
+        }
+        out.write("}\n");
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        generationPool.shutdownNow();
+    }
+    
     private List<TestCase> generateControllerTests(String className) {
         List<TestCase> tests = new ArrayList<>();
         
@@ -134,6 +365,86 @@ public class TestGenerationService {
         return testCase;
     }
     
+    /**
+     * Outcome of generating tests for a package
+     */
+    public static class GenerationReport {
+        private final String basePackage;
+        private final int classes;
+        private final int skippedClasses;
+        private final int failedClasses;
+        private final long testCases;
+        private final long elapsedMillis;
+        private final double classesPerSecond;
+        private final double testCasesPerSecond;
+        private final List<String> failures;
+        
+        public GenerationReport(String basePackage, int classes, int skippedClasses, int failedClasses,
+                                long testCases, long elapsedNanos, List<String> failures) {
+            double seconds = Math.max(1e-9, elapsedNanos / 1e9);
+            this.basePackage = basePackage;
+            this.classes = classes;
+            this.skippedClasses = skippedClasses;
+            this.failedClasses = failedClasses;
+            this.testCases = testCases;
+            this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            this.classesPerSecond = classes / seconds;
+            this.testCasesPerSecond = testCases / seconds;
+            this.failures = Collections.unmodifiableList(failures);
+        }
+        
+        public String getBasePackage() {
+            return basePackage;
+        }
+        
+        /**
+         * Classes tests were written for
+         */
+        public int getClasses() {
+            return classes;
+        }
+        
+        /**
+         * Interfaces, abstract, nested and annotation classes, which get no tests
+         */
+        public int getSkippedClasses() {
+            return skippedClasses;
+        }
+        
+        public int getFailedClasses() {
+            return failedClasses;
+        }
+        
+        public long getTestCases() {
+            return testCases;
+        }
+        
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+        
+        public double getClassesPerSecond() {
+            return classesPerSecond;
+        }
+        
+        public double getTestCasesPerSecond() {
+            return testCasesPerSecond;
+        }
+        
+        /**
+         * Why classes failed; at most the first 100
+         */
+        public List<String> getFailures() {
+            return failures;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d classes, %d tests, %d skipped, %d failed in %d ms (%.0f classes/s, %.0f tests/s)",
+                    classes, testCases, skippedClasses, failedClasses, elapsedMillis, classesPerSecond, testCasesPerSecond);
+        }
+    }
+    
     public static class TestCase {
         private String targetClass;
         private String testName;
@@ -0,0 +1,183 @@
+package com.example.aidevops.cicd;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the build outcome log and its counters, including recovery after restarts and crashes.
+ */
+public class BuildOutcomeStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static void recordBuilds(BuildOutcomeStore store, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            // Every third build fails, and always touches the flaky file
+            boolean success = i % 3 != 0;
+            List<String> changed = success
+                    ? List.of("src/web/Page" + i % 5 + ".java", "src/web/Style.css")
+                    : List.of("src/flaky/Cache.java", "src/web/Page" + i % 5 + ".java");
+            store.record(changed, success, 1_000L * i);
+        }
+    }
+
+    private static void assertSameCounters(BuildOutcomeStore expected, BuildOutcomeStore actual) {
+        assertEquals(expected.getOverallStats().toString(), actual.getOverallStats().toString());
+        for (String path : List.of("src/flaky/Cache.java", "src/web/Page3.java", "src/web/Style.css")) {
+            assertEquals(expected.getFileStats(path).toString(), actual.getFileStats(path).toString(), path);
+            assertEquals(expected.failureRate(path), actual.failureRate(path), 1e-12, path);
+        }
+        assertEquals(expected.getDirectoryStats("src/web").toString(), actual.getDirectoryStats("src/web").toString());
+    }
+
+    @Test
+    void shouldCountBuildsPerFileAndDirectory() throws Exception {
+        // Arrange
+        BuildOutcomeStore store = new BuildOutcomeStore();
+
+        // Act
+        recordBuilds(store, 30);
+        store.record(List.of("src/web/A.java", "src/web/B.java"), false, 0);
+
+        // Assert: a directory counts once per build however many of its files changed
+        assertEquals(31, store.getOverallStats().getBuilds());
+        assertEquals(11, store.getOverallStats().getFailures());
+        assertEquals(10, store.getFileStats("src/flaky/Cache.java").getFailures());
+        assertEquals(31, store.getDirectoryStats("src/web").getBuilds());
+        assertEquals(31, store.getVersion());
+        assertTrue(store.failureRate("src/flaky/Cache.java") > 0.8);
+        assertTrue(store.failureRate("src/web/Style.css") < 0.2);
+        // Too few builds of its own: falls back to its directory
+        assertEquals(store.failureRate("src/web/New.java"), store.failureRate("src/web/A.java"), 1e-12);
+        assertTrue(Double.isNaN(store.failureRate("docs/README.md")));
+    }
+
+    @Test
+    void shouldOnlyReplaceStatsOfTouchedComponents() throws Exception {
+        // Arrange
+        BuildOutcomeStore store = new BuildOutcomeStore();
+        recordBuilds(store, 300);
+        BuildOutcomeStore.Stats flaky = store.getFileStats("src/flaky/Cache.java");
+        BuildOutcomeStore.Stats web = store.getDirectoryStats("src/web");
+        long priorVersion = store.getPriorVersion();
+        double flakyRate = store.failureRate("src/flaky/Cache.java");
+
+        // Act
+        store.record(List.of("docs/README.md"), true, 0);
+
+        // Assert: the rounded overall rate held, so other components keep their stats and rates
+        assertSame(flaky, store.getFileStats("src/flaky/Cache.java"));
+        assertSame(web, store.getDirectoryStats("src/web"));
+        assertEquals(priorVersion, store.getPriorVersion());
+        assertEquals(flakyRate, store.failureRate("src/flaky/Cache.java"));
+        store.record(List.of("src/web/Page1.java"), true, 0);
+        assertNotSame(web, store.getDirectoryStats("src/web"));
+        assertSame(flaky, store.getFileStats("src/flaky/Cache.java"));
+    }
+
+    @Test
+    void shouldRestoreCountersAfterCleanAndUncleanRestarts() throws Exception {
+        // Arrange
+        BuildOutcomeStore reference = new BuildOutcomeStore();
+        recordBuilds(reference, 25);
+        BuildOutcomeStore crashed = new BuildOutcomeStore(directory, BuildOutcomeStore.DEFAULT_SEGMENT_BYTES, 10);
+        recordBuilds(crashed, 25);
+
+        // Act: reopen without closing (checkpoint at 20, 5 builds replayed), then after a clean close
+        BuildOutcomeStore recovered = new BuildOutcomeStore(directory, BuildOutcomeStore.DEFAULT_SEGMENT_BYTES, 10);
+        assertSameCounters(reference, recovered);
+        recovered.close();
+        BuildOutcomeStore reopened = new BuildOutcomeStore(directory, BuildOutcomeStore.DEFAULT_SEGMENT_BYTES, 10);
+
+        // Assert
+        assertSameCounters(reference, reopened);
+        reopened.close();
+    }
+
+    @Test
+    void shouldDropTornRecordAndKeepAppending() throws Exception {
+        // Arrange
+        BuildOutcomeStore reference = new BuildOutcomeStore();
+        recordBuilds(reference, 12);
+        BuildOutcomeStore store = new BuildOutcomeStore(directory, BuildOutcomeStore.DEFAULT_SEGMENT_BYTES, 100);
+        recordBuilds(store, 12);
+        // A crash halfway through writing a record
+        Path segment = directory.resolve("segment-000001.log");
+        Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // Act
+        BuildOutcomeStore recovered = new BuildOutcomeStore(directory, BuildOutcomeStore.DEFAULT_SEGMENT_BYTES, 100);
+        reference.record(List.of("src/web/Page3.java"), false, 0);
+        recovered.record(List.of("src/web/Page3.java"), false, 0);
+        recovered.close();
+        BuildOutcomeStore reopened = new BuildOutcomeStore(directory, BuildOutcomeStore.DEFAULT_SEGMENT_BYTES, 100);
+
+        // Assert
+        assertSameCounters(reference, reopened);
+        reopened.close();
+    }
+
+    @Test
+    void shouldRejectOversizedOutcomeAndKeepLaterHistoryAcrossRestart() throws Exception {
+        // Arrange
+        BuildOutcomeStore reference = new BuildOutcomeStore();
+        BuildOutcomeStore store = new BuildOutcomeStore(directory, BuildOutcomeStore.DEFAULT_SEGMENT_BYTES, 100);
+        List<String> largeBuild = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            largeBuild.add("src/generated/Model" + i + ".java");
+        }
+        String longPath = "src/huge/" + "x".repeat(60_000);
+        List<String> oversizedBuild = new ArrayList<>();
+        for (int i = 0; i <= BuildOutcomeStore.MAX_RECORD_BYTES / 60_000; i++) {
+            oversizedBuild.add(longPath + i);
+        }
+
+        // Act
+        reference.record(largeBuild, true, 0);
+        store.record(largeBuild, true, 0);
+        assertThrows(IllegalArgumentException.class, () -> store.record(oversizedBuild, false, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.record(Arrays.asList("src/web/Page1.java", null), false, 0));
+        recordBuilds(reference, 12);
+        recordBuilds(store, 12);
+        // Reopen without closing, so every record is replayed from the segment
+        BuildOutcomeStore recovered = new BuildOutcomeStore(directory, BuildOutcomeStore.DEFAULT_SEGMENT_BYTES, 100);
+
+        // Assert
+        assertSameCounters(reference, recovered);
+        assertEquals(1, recovered.getFileStats("src/generated/Model19999.java").getBuilds());
+        assertNull(recovered.getDirectoryStats("src/huge"));
+        recovered.close();
+    }
+
+    @Test
+    void shouldRollSegmentsAndReplayAcrossThem() throws Exception {
+        // Arrange
+        BuildOutcomeStore reference = new BuildOutcomeStore();
+        recordBuilds(reference, 40);
+        BuildOutcomeStore store = new BuildOutcomeStore(directory, 256, 1000);
+
+        // Act
+        recordBuilds(store, 40);
+        Files.delete(directory.resolve(BuildOutcomeStore.CHECKPOINT_FILE));
+        BuildOutcomeStore replayed = new BuildOutcomeStore(directory, 256, 1000);
+
+        // Assert
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.filter(path -> path.getFileName().toString().startsWith("segment-")).count() > 5);
+        }
+        assertSameCounters(reference, replayed);
+        replayed.close();
+    }
+}
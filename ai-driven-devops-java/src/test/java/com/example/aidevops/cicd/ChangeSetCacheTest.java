@@ -0,0 +1,68 @@
+package com.example.aidevops.cicd;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the change set cache.
+ */
+public class ChangeSetCacheTest {
+
+    @Test
+    void shouldHitForSameChangesInAnyOrder() {
+        // Arrange
+        ChangeSetCache<String> cache = new ChangeSetCache<>("test", 100);
+        Map<String, Integer> changes = new LinkedHashMap<>();
+        changes.put("src/A.java", 10);
+        changes.put("src/B.java", 20);
+        Map<String, Integer> reordered = new LinkedHashMap<>();
+        reordered.put("src/B.java", 20);
+        reordered.put("src/A.java", 10);
+
+        // Act
+        cache.put(changes, 1, "assessment");
+
+        // Assert
+        assertEquals(ChangeSetCache.fingerprint(changes), ChangeSetCache.fingerprint(reordered));
+        assertEquals("assessment", cache.get(reordered, 1));
+        assertNull(cache.get(Map.of("src/A.java", 10, "src/B.java", 21), 1));
+        assertNull(cache.get(Map.of("src/A.java", 10), 1));
+    }
+
+    @Test
+    void shouldMissForOtherGeneration() {
+        // Arrange
+        ChangeSetCache<String> cache = new ChangeSetCache<>("test", 100);
+        Map<String, Integer> changes = Map.of("src/A.java", 10);
+        cache.put(changes, 2, "current");
+
+        // Act: an older computation finishing late
+        cache.put(changes, 1, "stale");
+
+        // Assert
+        assertEquals("current", cache.get(changes, 2));
+        assertNull(cache.get(changes, 3));
+    }
+
+    @Test
+    void shouldStayWithinBound() {
+        // Arrange
+        ChangeSetCache<Integer> cache = new ChangeSetCache<>("test", 64);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            Map<String, Integer> changes = new HashMap<>();
+            changes.put("src/File" + i + ".java", i);
+            cache.put(changes, 0, i);
+        }
+
+        // Assert: 16 stripes of 4
+        assertTrue(cache.size() <= 64, "size " + cache.size());
+        assertEquals(9_999, cache.get(Map.of("src/File9999.java", 9_999), 0));
+    }
+}
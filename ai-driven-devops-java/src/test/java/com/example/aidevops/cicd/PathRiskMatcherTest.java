@@ -0,0 +1,128 @@
+package com.example.aidevops.cicd;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the compiled path risk rules.
+ */
+public class PathRiskMatcherTest {
+
+    // The checks the built-in model replaces
+    private static double containsScore(String filename) {
+        double score = 0;
+        if (filename.contains("security") || filename.contains("auth")) {
+            score += 0.2;
+        }
+        if (filename.contains("repository") || filename.contains("dao")) {
+            score += 0.15;
+        }
+        return score;
+    }
+
+    @Test
+    void shouldScoreLikeContainsChecksWithDefaultRules() {
+        // Arrange
+        PathRiskMatcher matcher = PathRiskMatcher.defaults();
+        List<String> paths = List.of(
+                "src/security/AuthFilter.java", "src/auth/LoginService.java", "src/repository/OrderRepository.java",
+                "src/dao/UserDao.java", "src/web/authority/SecurityDaoRepository.java", "src/web/Page.java",
+                "README.md", "", "src/Auth.java", "src/ünïcödé/auth.txt", "author/dao");
+
+        // Act / Assert
+        for (String path : paths) {
+            assertEquals(containsScore(path), matcher.score(path), 1e-12, path);
+        }
+    }
+
+    @Test
+    void shouldCountEachRuleOncePerPath() {
+        // Arrange
+        PathRiskMatcher matcher = PathRiskMatcher.defaults();
+
+        // Act
+        double score = matcher.score("security/auth/security/auth.java");
+
+        // Assert
+        assertEquals(0.2, score, 1e-12);
+        assertEquals(0b01L, matcher.matchedRules("security/auth/security/auth.java"));
+    }
+
+    @Test
+    void shouldMatchAnchoredAndUnanchoredGlobs() {
+        // Arrange
+        PathRiskMatcher matcher = PathRiskMatcher.compile(List.of(
+                new PathRiskMatcher.Rule("auth-dir", 1, List.of(), List.of("**/auth/**")),
+                new PathRiskMatcher.Rule("sql", 2, List.of(), List.of("*.sql")),
+                new PathRiskMatcher.Rule("infra", 4, List.of(), List.of("infra/**")),
+                new PathRiskMatcher.Rule("pom", 8, List.of(), List.of("**/pom.xml"))));
+
+        // Act / Assert
+        assertEquals(1, matcher.score("auth/Login.java"));
+        assertEquals(1, matcher.score("src/auth/Login.java"));
+        assertEquals(0, matcher.score("src/oauth/Login.java"));
+        assertEquals(2, matcher.score("db/V1__init.sql"));
+        assertEquals(0, matcher.score("db/V1__init.sql.bak"));
+        assertEquals(4, matcher.score("infra/main.tf"));
+        assertEquals(0, matcher.score("src/infra/main.tf"));
+        assertEquals(8, matcher.score("pom.xml"));
+        assertEquals(8, matcher.score("module/pom.xml"));
+        assertEquals(0, matcher.score("module/pom.xml.orig"));
+        assertEquals(1 + 2 + 4, matcher.score("infra/auth/grants.sql"));
+    }
+
+    @Test
+    void shouldTranslateGlobsToBoundaryKeywords() {
+        assertEquals(List.of("\u0000src/auth/"), PathRiskMatcher.globToKeywords("src/auth/**"));
+        assertEquals(List.of("\u0000auth/", "/auth/"), PathRiskMatcher.globToKeywords("**/auth/**"));
+        assertEquals(List.of(".sql\u0000"), PathRiskMatcher.globToKeywords("**/*.sql"));
+        assertEquals(List.of("Controller"), PathRiskMatcher.globToKeywords("*Controller*"));
+    }
+
+    @Test
+    void shouldRejectInvalidRuleTables() {
+        // Arrange
+        List<PathRiskMatcher.Rule> tooMany = new ArrayList<>();
+        for (int i = 0; i <= PathRiskMatcher.MAX_RULES; i++) {
+            tooMany.add(new PathRiskMatcher.Rule("r" + i, 0.1, List.of("k" + i), List.of()));
+        }
+
+        // Act / Assert
+        assertThrows(IllegalArgumentException.class, () -> PathRiskMatcher.compile(tooMany));
+        assertThrows(IllegalArgumentException.class, () -> PathRiskMatcher.compile(List.of(
+                new PathRiskMatcher.Rule("middle", 0.1, List.of(), List.of("src/*/auth")))));
+        assertThrows(IllegalArgumentException.class, () -> PathRiskMatcher.compile(List.of(
+                new PathRiskMatcher.Rule("empty", 0.1, List.of(), List.of()))));
+        assertEquals(PathRiskMatcher.MAX_RULES, PathRiskMatcher.compile(tooMany.subList(0, PathRiskMatcher.MAX_RULES)).ruleCount());
+    }
+
+    @Test
+    void shouldReadModelFile() throws Exception {
+        // Arrange
+        String json = "{\"rules\": [{\"name\": \"migrations\", \"weight\": 0.3, \"globs\": [\"**/db/migration/**\"]},"
+                + " {\"name\": \"auth\", \"weight\": 0.2, \"keywords\": [\"auth\"]}]}";
+
+        // Act
+        PathRiskMatcher matcher = PathRiskMatcher.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, matcher.ruleCount());
+        assertEquals(0.5, matcher.score("src/main/resources/db/migration/V2__auth.sql"), 1e-12);
+    }
+
+    @Test
+    void shouldKeepCurrentModelWhenLoadFails() {
+        // Arrange
+        PredictiveCiCdService service = new PredictiveCiCdService(1L);
+
+        // Act / Assert
+        assertFalse(service.loadModel("classpath:models/missing/"));
+        assertTrue(service.loadModel("classpath:models/cicd/"));
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.aidevops.cicd;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for build risk assessment, including concurrent requests.
+ */
+public class PredictiveCiCdServiceTest {
+
+    private static final int THREADS = 8;
+
+    private static List<Map<String, Integer>> changeSets(int count) {
+        List<Map<String, Integer>> changeSets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Integer> changes = new HashMap<>();
+            // File names are unique per request, so a leaked score would show up as a foreign file
+            changes.put("src/security/AuthFilter" + i + ".java", i % 40);
+            changes.put("src/repository/OrderRepository" + i + ".java", 10 + i % 25);
+            for (int j = 0; j < i % 6; j++) {
+                changes.put("src/web/Page" + i + "_" + j + ".java", j * 7);
+            }
+            changeSets.add(changes);
+        }
+        return changeSets;
+    }
+
+    @Test
+    void shouldGiveSameAssessmentForSameChangesWhenSeeded() {
+        // Arrange: a large security change scores above 0.5 whatever the variance
+        Map<String, Integer> changes = changeSets(40).get(39);
+
+        // Act
+        PredictiveCiCdService.BuildRiskAssessment first = new PredictiveCiCdService(42L).predictBuildSuccess(changes);
+        PredictiveCiCdService.BuildRiskAssessment second = new PredictiveCiCdService(42L).predictBuildSuccess(changes);
+
+        // Assert
+        assertEquals(first.getOverallRiskScore(), second.getOverallRiskScore());
+        assertEquals(first.getPredictedOutcome(), second.getPredictedOutcome());
+        assertEquals(first.getComponentRisks(), second.getComponentRisks());
+        assertTrue(first.getComponentRisks().containsKey("src/security/AuthFilter39.java"));
+    }
+
+    @Test
+    void shouldKeepConcurrentAssessmentsIndependent() throws Exception {
+        // Arrange: expected results computed one at a time
+        PredictiveCiCdService service = new PredictiveCiCdService(7L);
+        List<Map<String, Integer>> changeSets = changeSets(2000);
+        List<PredictiveCiCdService.BuildRiskAssessment> expected = new ArrayList<>();
+        for (Map<String, Integer> changes : changeSets) {
+            expected.add(service.predictBuildSuccess(changes));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act: every thread assesses every change set, each starting at a different offset
+        List<Future<Integer>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * changeSets.size() / THREADS;
+            Callable<Integer> worker = () -> {
+                int mismatches = 0;
+                for (int n = 0; n < changeSets.size(); n++) {
+                    int i = (offset + n) % changeSets.size();
+                    PredictiveCiCdService.BuildRiskAssessment actual = service.predictBuildSuccess(changeSets.get(i));
+                    if (actual.getOverallRiskScore() != expected.get(i).getOverallRiskScore()
+                            || !actual.getPredictedOutcome().equals(expected.get(i).getPredictedOutcome())
+                            || !actual.getComponentRisks().equals(expected.get(i).getComponentRisks())) {
+                        mismatches++;
+                    }
+                }
+                return mismatches;
+            };
+            workers.add(executor.submit(worker));
+        }
+        int mismatches = 0;
+        for (Future<Integer> worker : workers) {
+            mismatches += worker.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(0, mismatches);
+    }
+
+    @Test
+    void shouldOnlyReportFilesFromTheRequestWhenUnseeded() throws Exception {
+        // Arrange
+        PredictiveCiCdService service = new PredictiveCiCdService();
+        List<Map<String, Integer>> changeSets = changeSets(500);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int round = 0; round < 4; round++) {
+            for (Map<String, Integer> changes : changeSets) {
+                results.add(executor.submit(() -> {
+                    PredictiveCiCdService.BuildRiskAssessment assessment = service.predictBuildSuccess(changes);
+                    double score = assessment.getOverallRiskScore();
+                    return changes.keySet().containsAll(assessment.getComponentRisks().keySet())
+                            && score >= 0.1 && score <= 1.0;
+                }));
+            }
+        }
+
+        // Assert
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldScoreComponentsFromRecordedBuildOutcomes() throws Exception {
+        // Arrange
+        PredictiveCiCdService service = new PredictiveCiCdService(3L, new BuildOutcomeStore());
+        for (int i = 0; i < 20; i++) {
+            service.recordBuildOutcome(new PredictiveCiCdService.BuildOutcome(List.of("src/core/Flaky.java"), false));
+            service.recordBuildOutcome(new PredictiveCiCdService.BuildOutcome(List.of("src/web/Stable.java"), true));
+        }
+
+        // Act
+        Map<String, Integer> flaky = Map.of("src/core/Flaky.java", 30);
+        Map<String, Integer> stable = Map.of("src/web/Stable.java", 30);
+
+        // Assert: 0.3 for the change size plus the failure rate weighted by 0.4
+        assertTrue(service.predictBuildSuccess(flaky).getComponentRisks().containsKey("src/core/Flaky.java"));
+        assertTrue(service.predictBuildSuccess(stable).getComponentRisks().isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> service.recordBuildOutcome(new PredictiveCiCdService.BuildOutcome(List.of(), true)));
+    }
+
+    @Test
+    void shouldReuseCachedAssessmentUntilHistoryOrModelChanges() throws Exception {
+        // Arrange: unseeded, so only the cache can make ten random component scores repeat
+        PredictiveCiCdService service = new PredictiveCiCdService(null, new BuildOutcomeStore(), 100);
+        Map<String, Integer> changes = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            changes.put("src/security/AuthFilter" + i + ".java", 40);
+        }
+
+        // Act
+        PredictiveCiCdService.BuildRiskAssessment first = service.predictBuildSuccess(changes);
+        Map<String, String> firstRisks = new HashMap<>(first.getComponentRisks());
+        first.getComponentRisks().clear();
+        PredictiveCiCdService.BuildRiskAssessment repeated = service.predictBuildSuccess(new HashMap<>(changes));
+        service.recordBuildOutcome(new PredictiveCiCdService.BuildOutcome(List.of("docs/README.md"), true));
+        PredictiveCiCdService.BuildRiskAssessment afterUnrelatedOutcome = service.predictBuildSuccess(changes);
+        service.loadModel("classpath:models/cicd/");
+        PredictiveCiCdService.BuildRiskAssessment afterReload = service.predictBuildSuccess(changes);
+        service.recordBuildOutcome(new PredictiveCiCdService.BuildOutcome(List.of("src/security/AuthFilter0.java"), false));
+        PredictiveCiCdService.BuildRiskAssessment afterOutcome = service.predictBuildSuccess(changes);
+
+        // Assert: callers get copies; an outcome for other files keeps the entry, while a model
+        // reload or an outcome touching the change set forces a fresh (here, freshly random) assessment
+        assertEquals(first.getOverallRiskScore(), repeated.getOverallRiskScore());
+        assertEquals(firstRisks, repeated.getComponentRisks());
+        assertNotSame(repeated, service.predictBuildSuccess(changes));
+        assertEquals(firstRisks, afterUnrelatedOutcome.getComponentRisks());
+        assertNotEquals(afterUnrelatedOutcome.getComponentRisks(), afterReload.getComponentRisks());
+        assertNotEquals(afterReload.getComponentRisks(), afterOutcome.getComponentRisks());
+    }
+
+    @Test
+    void shouldHitCacheOnRetryAfterOtherBuildsAreRecorded() throws Exception {
+        // Arrange: an established history, so one more build barely moves the overall failure rate
+        BuildOutcomeStore history = new BuildOutcomeStore();
+        for (int i = 0; i < 400; i++) {
+            history.record(List.of("src/core/Service" + (i % 20) + ".java"), i % 4 != 0, i);
+        }
+        PredictiveCiCdService service = new PredictiveCiCdService(null, history, 100);
+        Map<String, Integer> changes = new HashMap<>();
+        changes.put("src/core/Service3.java", 25);
+        for (int i = 0; i < 10; i++) {
+            changes.put("src/security/TokenStore" + i + ".java", 40);
+        }
+        Map<String, String> firstRisks = service.predictBuildSuccess(changes).getComponentRisks();
+
+        // Act: the change set's build fails, other pipelines finish, and the change set is retried
+        service.recordBuildOutcome(new PredictiveCiCdService.BuildOutcome(List.of("docs/CHANGELOG.md"), true));
+        service.recordBuildOutcome(new PredictiveCiCdService.BuildOutcome(List.of("src/web/Page.java"), false));
+        PredictiveCiCdService.BuildRiskAssessment retried = service.predictBuildSuccess(changes);
+        service.recordBuildOutcome(new PredictiveCiCdService.BuildOutcome(List.of("src/core/Service7.java"), false));
+        PredictiveCiCdService.BuildRiskAssessment afterSameDirectory = service.predictBuildSuccess(changes);
+
+        // Assert: the random scores of the history-less files only repeat on a cache hit
+        assertEquals(firstRisks, retried.getComponentRisks());
+        assertNotEquals(firstRisks, afterSameDirectory.getComponentRisks());
+    }
+}
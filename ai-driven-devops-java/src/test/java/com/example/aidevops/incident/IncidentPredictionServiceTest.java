@@ -0,0 +1,175 @@
+package com.example.aidevops.incident;
+
+import com.example.aidevops.monitoring.AnomalyDetectionService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the parallel incident prediction pass.
+ */
+public class IncidentPredictionServiceTest {
+
+    private static Set<String> predictedMetrics(int parallelism) {
+        IncidentPredictionService service = new IncidentPredictionService(parallelism);
+        try {
+            for (int sample = 0; sample < 20; sample++) {
+                for (int i = 0; i < 2000; i++) {
+                    // Every third CPU series climbs 10 points per sample, the rest stay flat
+                    double value = i % 3 == 0 ? 50 + sample * 10 : 50;
+                    service.recordMetric("cpu.usage." + i, value);
+                    service.recordMetric("queue.depth." + i, 10);
+                }
+            }
+            List<IncidentPredictionService.IncidentPrediction> predictions = service.predictIncidents();
+            return predictions.stream()
+                    .map(IncidentPredictionService.IncidentPrediction::getMetricName)
+                    .collect(Collectors.toSet());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void shouldPredictSameIncidentsRegardlessOfParallelism() {
+        // Act
+        Set<String> sequential = predictedMetrics(1);
+        Set<String> parallel = predictedMetrics(4);
+
+        // Assert
+        assertEquals(667, sequential.size());
+        assertTrue(sequential.stream().allMatch(name -> name.startsWith("cpu.usage.")));
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void shouldEstimateTimeToIncidentFromSampleTimestamps() {
+        // Arrange: CPU climbs 6 points per sample, sampled every 30 seconds (12 points per minute)
+        IncidentPredictionService service = new IncidentPredictionService(1);
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < 12; i++) {
+            service.recordMetric(new AnomalyDetectionService.MetricDataPoint("cpu.usage", 10 + 6 * i, start + i * 30_000L));
+        }
+
+        // Act
+        List<IncidentPredictionService.IncidentPrediction> predictions = service.predictIncidents();
+        service.shutdown();
+
+        // Assert: 76 now, 19 points below the 95% CPU threshold
+        assertEquals(1, predictions.size());
+        IncidentPredictionService.IncidentPrediction prediction = predictions.get(0);
+        assertEquals(12.0, prediction.getTrendPerMinute(), 1e-9);
+        assertEquals(19.0 / 12, prediction.getEtaMinutes(), 1e-9);
+        assertEquals(prediction.getEtaMinutes(), prediction.getEtaLowerMinutes(), 1e-6);
+        assertEquals(prediction.getEtaMinutes(), prediction.getEtaUpperMinutes(), 1e-6);
+        assertEquals("~2 minutes (2-2)", prediction.getTimeToIncident());
+    }
+
+    @Test
+    void shouldEvaluateOnlyChangedSeries() {
+        // Arrange
+        IncidentPredictionService service = new IncidentPredictionService(1);
+        for (int i = 0; i < 12; i++) {
+            service.recordMetric("cpu.usage", 10 + 6 * i);
+            service.recordMetric("queue.depth", 10);
+        }
+
+        // Act
+        List<IncidentPredictionService.IncidentPrediction> first = service.evaluateDirtySeries();
+        List<IncidentPredictionService.IncidentPrediction> idle = service.evaluateDirtySeries();
+        service.recordMetric("cpu.usage", 82);
+        List<IncidentPredictionService.IncidentPrediction> changed = service.evaluateDirtySeries();
+        service.shutdown();
+
+        // Assert
+        assertEquals(1, first.size());
+        assertTrue(idle.isEmpty());
+        assertEquals(1, changed.size());
+        assertEquals(82, changed.get(0).getCurrentValue());
+    }
+
+    @Test
+    void shouldEvaluateRecordedSeriesWithinLatencyBudget() throws InterruptedException {
+        // Arrange
+        IncidentPredictionService service = new IncidentPredictionService(1);
+        service.startEventDrivenEvaluation(100);
+        long start = System.currentTimeMillis();
+
+        // Act
+        for (int i = 0; i < 12; i++) {
+            service.recordMetric(new AnomalyDetectionService.MetricDataPoint("cpu.usage", 10 + 6 * i, start + i * 30_000L));
+        }
+        long recorded = System.nanoTime();
+        while (service.forecast("cpu.usage", 95) == null && System.nanoTime() - recorded < 5_000_000_000L) {
+            Thread.sleep(5);
+        }
+        long latencyMillis = (System.nanoTime() - recorded) / 1_000_000;
+        service.shutdown();
+
+        // Assert
+        assertNotNull(service.forecast("cpu.usage", 95));
+        assertTrue(latencyMillis < 1000, "evaluated after " + latencyMillis + " ms");
+    }
+
+    @Test
+    void shouldClassifyMetricsByConfiguredRules() {
+        // Arrange: a single rule for queues, so nothing else is analyzed
+        IncidentRule queueRule = new IncidentRule();
+        queueRule.setName("queues");
+        queueRule.setPatterns(List.of("queue"));
+        queueRule.setMinChange(1.0);
+        queueRule.setIncident("Queue backlog growing");
+        queueRule.setSeverity("HIGH");
+        queueRule.setRecommendedAction("Add consumers");
+        queueRule.setEtaThreshold(100.0);
+        IncidentRuleProperties properties = new IncidentRuleProperties();
+        properties.setRules(List.of(queueRule));
+        PredictionSink sink = new PredictionSink();
+        IncidentPredictionService service = new IncidentPredictionService(1, 15, sink, properties);
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < 12; i++) {
+            service.recordMetric("queue.depth", 10 + 2 * i, start + i * 60_000L);
+            service.recordMetric("cpu.usage", 10 + 6 * i, start + i * 60_000L);
+        }
+
+        // Act
+        List<IncidentPredictionService.IncidentPrediction> predictions = service.predictIncidents();
+        service.shutdown();
+        sink.close();
+
+        // Assert: 32 now, rising 2 per minute towards 100
+        assertEquals(1, predictions.size());
+        IncidentPredictionService.IncidentPrediction prediction = predictions.get(0);
+        assertEquals("queue.depth", prediction.getMetricName());
+        assertEquals("Queue backlog growing", prediction.getPredictedIncident());
+        assertEquals("HIGH", prediction.getSeverity());
+        assertEquals("Add consumers", prediction.getRecommendedAction());
+        assertEquals(34.0, prediction.getEtaMinutes(), 1e-9);
+    }
+
+    @Test
+    void shouldRejectIncompleteRule() {
+        // Arrange
+        IncidentRule rule = new IncidentRule();
+        rule.setName("broken");
+        rule.setIncident("Something");
+        IncidentRuleProperties properties = new IncidentRuleProperties();
+        properties.setRules(List.of(rule));
+
+        // Act
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new IncidentPredictionService(1, 15, new PredictionSink(), properties));
+
+        // Assert
+        assertTrue(e.getMessage().contains("broken"));
+    }
+
+    @Test
+    void shouldRejectNegativeParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new IncidentPredictionService(-1));
+    }
+}
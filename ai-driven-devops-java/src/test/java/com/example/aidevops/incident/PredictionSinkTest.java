@@ -0,0 +1,160 @@
+package com.example.aidevops.incident;
+
+import com.example.aidevops.incident.IncidentPredictionService.IncidentPrediction;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for prediction deduplication, backpressure, queries and queue metrics.
+ */
+public class PredictionSinkTest {
+
+    private static IncidentPrediction prediction(String metricName, String incident, double value) {
+        IncidentPrediction prediction = new IncidentPrediction();
+        prediction.setMetricName(metricName);
+        prediction.setPredictedIncident(incident);
+        prediction.setCurrentValue(value);
+        return prediction;
+    }
+
+    @Test
+    void shouldSuppressRepeatedIncidentWithinWindow() {
+        // Arrange
+        AtomicLong now = new AtomicLong(1_000_000);
+        PredictionSink sink = new PredictionSink(16, 60_000, 10, now::get);
+
+        // Act
+        boolean first = sink.publish(prediction("cpu.usage", "CPU saturation approaching", 80));
+        boolean repeated = sink.publish(prediction("cpu.usage", "CPU saturation approaching", 85));
+        boolean otherMetric = sink.publish(prediction("memory.used", "Potential memory leak", 70));
+        now.addAndGet(60_000);
+        boolean afterWindow = sink.publish(prediction("cpu.usage", "CPU saturation approaching", 90));
+        sink.close();
+
+        // Assert
+        assertTrue(first);
+        assertFalse(repeated);
+        assertTrue(otherMetric);
+        assertTrue(afterWindow);
+        List<IncidentPrediction> cpu = sink.recent("cpu.usage", 10);
+        assertEquals(2, cpu.size());
+        assertEquals(90, cpu.get(0).getCurrentValue());
+        assertEquals(80, cpu.get(1).getCurrentValue());
+        assertEquals(3, sink.recent(null, 10).size());
+        assertEquals(1, sink.recent(null, 1).size());
+    }
+
+    @Test
+    void shouldForgetPublishTimesOutsideWindow() {
+        // Arrange
+        AtomicLong now = new AtomicLong(1_000_000);
+        PredictionSink sink = new PredictionSink(16, 60_000, 10, now::get);
+        sink.publish(prediction("cpu.usage", "CPU saturation approaching", 80));
+        sink.publish(prediction("memory.used", "Potential memory leak", 70));
+        now.addAndGet(30_000);
+        sink.publish(prediction("disk.used", "Disk space exhaustion", 90));
+
+        // Act: the first two are now a full window old, the third only half
+        now.addAndGet(30_000);
+        sink.pruneExpired();
+        boolean republished = sink.publish(prediction("cpu.usage", "CPU saturation approaching", 85));
+        boolean stillSuppressed = sink.publish(prediction("disk.used", "Disk space exhaustion", 95));
+        sink.close();
+
+        // Assert
+        assertTrue(republished);
+        assertFalse(stillSuppressed);
+        assertEquals(2, sink.trackedIncidents());
+    }
+
+    @Test
+    void shouldDropInsteadOfBlockingWhenQueueIsFull() throws InterruptedException {
+        // Arrange
+        PredictionSink sink = new PredictionSink(1, 60_000, 10, System::currentTimeMillis);
+        CountDownLatch dispatching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        sink.subscribe(prediction -> {
+            dispatching.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Act: the dispatcher holds the first prediction, the second fills the queue
+        assertTrue(sink.publish(prediction("latency.1", "Performance degradation", 1)));
+        assertTrue(dispatching.await(5, TimeUnit.SECONDS));
+        boolean queued = sink.publish(prediction("latency.2", "Performance degradation", 2));
+        boolean overflow = sink.publish(prediction("latency.3", "Performance degradation", 3));
+        release.countDown();
+        sink.close();
+
+        // Assert
+        assertTrue(queued);
+        assertFalse(overflow);
+        assertEquals(2, sink.recent(null, 10).size());
+    }
+
+    @Test
+    void shouldReportEachSinkQueueSeparately() throws InterruptedException {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            Map<String, Double> before = queueSizes(registry);
+            PredictionSink busy = new PredictionSink(16, 60_000, 10, System::currentTimeMillis);
+            PredictionSink idle = new PredictionSink(16, 60_000, 10, System::currentTimeMillis);
+            CountDownLatch dispatching = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            busy.subscribe(prediction -> {
+                dispatching.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            // Act: the dispatcher holds the first prediction, the next two wait in the queue
+            busy.publish(prediction("latency.1", "Performance degradation", 1));
+            assertTrue(dispatching.await(5, TimeUnit.SECONDS));
+            busy.publish(prediction("latency.2", "Performance degradation", 2));
+            busy.publish(prediction("latency.3", "Performance degradation", 3));
+            Map<String, Double> during = queueSizes(registry);
+            release.countDown();
+            busy.close();
+            idle.close();
+
+            // Assert
+            during.keySet().removeAll(before.keySet());
+            assertEquals(2, during.size());
+            assertTrue(during.containsValue(2.0));
+            assertTrue(during.containsValue(0.0));
+            assertEquals(before.keySet(), queueSizes(registry).keySet());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+
+    private static Map<String, Double> queueSizes(SimpleMeterRegistry registry) {
+        Collection<Gauge> gauges = registry.find("ai.incident.prediction.queue.size").gauges();
+        Map<String, Double> sizes = new HashMap<>();
+        for (Gauge gauge : gauges) {
+            sizes.put(gauge.getId().getTag("sink"), gauge.value());
+        }
+        return sizes;
+    }
+}
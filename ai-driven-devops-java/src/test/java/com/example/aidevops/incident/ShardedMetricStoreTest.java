@@ -0,0 +1,103 @@
+package com.example.aidevops.incident;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the sharded per-metric sample store.
+ */
+public class ShardedMetricStoreTest {
+
+    @Test
+    void shouldReturnLatestValuesOldestFirst() {
+        // Arrange
+        ShardedMetricStore store = new ShardedMetricStore(4, 8);
+
+        // Act
+        for (int i = 1; i <= 20; i++) {
+            store.record("cpu.usage", i, i);
+        }
+        Map<String, Long> historySizes = new HashMap<>();
+        store.forEachSeries(5, (name, historySize, values, size) -> historySizes.put(name, historySize));
+
+        // Assert
+        assertArrayEquals(new double[]{16, 17, 18, 19, 20}, store.snapshot("cpu.usage", 5));
+        assertArrayEquals(new double[]{13, 14, 15, 16, 17, 18, 19, 20}, store.snapshot("cpu.usage", 50));
+        assertEquals(0, store.snapshot("unknown", 5).length);
+        assertEquals(Map.of("cpu.usage", 8L), historySizes);
+        assertEquals(4, store.shardCount());
+    }
+
+    @Test
+    void shouldVisitOnlySeriesRecordedToSinceLastDrain() {
+        // Arrange
+        ShardedMetricStore store = new ShardedMetricStore(1, 8);
+        List<String> visited = new ArrayList<>();
+
+        // Act
+        boolean firstMarked = store.record("cpu.usage", 1, 10);
+        boolean secondMarked = store.record("cpu.usage", 2, 20);
+        store.record("memory.used", 1, 30);
+        store.forEachDirtySeries(0, 5, (name, historySize, values, size) -> visited.add(name + ":" + size));
+        store.forEachDirtySeries(0, 5, (name, historySize, values, size) -> visited.add("again:" + name));
+        store.record("memory.used", 2, 40);
+        store.forEachDirtySeries(0, 5, (name, historySize, values, size) -> visited.add(name + ":" + size));
+
+        // Assert
+        assertTrue(firstMarked);
+        assertFalse(secondMarked);
+        assertEquals(List.of("cpu.usage:2", "memory.used:1", "memory.used:2"), visited);
+    }
+
+    @Test
+    void shouldReadSnapshotsWhileWritersAreRecording() throws Exception {
+        // Arrange
+        ShardedMetricStore store = new ShardedMetricStore(16, 128);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean stop = new AtomicBoolean();
+
+        // Act: writers add series and samples while the reader keeps taking snapshots
+        Future<?>[] writers = new Future<?>[3];
+        for (int w = 0; w < writers.length; w++) {
+            int writer = w;
+            writers[w] = executor.submit(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    // Each series only ever increases, so any snapshot must be ascending
+                    store.record("metric." + writer + "." + (i % 500), i, i);
+                }
+            });
+        }
+        Future<Integer> reader = executor.submit(() -> {
+            int passes = 0;
+            while (!stop.get()) {
+                store.forEachSeries(5, (name, historySize, values, size) -> {
+                    for (int i = 1; i < size; i++) {
+                        assertTrue(values[i] > values[i - 1], name);
+                    }
+                });
+                passes++;
+            }
+            return passes;
+        });
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        stop.set(true);
+
+        // Assert
+        assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+        assertEquals(1500, store.seriesCount());
+        executor.shutdown();
+    }
+}
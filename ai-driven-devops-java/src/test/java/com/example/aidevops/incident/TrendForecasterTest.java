@@ -0,0 +1,102 @@
+package com.example.aidevops.incident;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the time-weighted least-squares trend forecaster.
+ */
+public class TrendForecasterTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void shouldFitExactLineFromIrregularSamples() {
+        // Arrange
+        TrendForecaster forecaster = new TrendForecaster(15);
+        long[] offsets = {0, 10_000, 25_000, 90_000, 95_000, 300_000, 330_000, 600_000};
+
+        // Act: value = 40 + 2 per minute
+        for (long offset : offsets) {
+            forecaster.add(1_700_000_000_000L + offset, 40 + 2.0 * offset / MINUTE);
+        }
+        TrendForecaster.TimeToThreshold eta = forecaster.timeToThreshold(90, 1.96);
+
+        // Assert: 60 at 10 minutes, 15 more minutes to reach 90
+        assertEquals(2.0, forecaster.getSlopePerMinute(), 1e-9);
+        assertEquals(60.0, forecaster.getLevel(), 1e-9);
+        assertEquals(15.0, eta.getMinutes(), 1e-6);
+        assertEquals(15.0, eta.getLowerMinutes(), 1e-3);
+        assertEquals(15.0, eta.getUpperMinutes(), 1e-3);
+    }
+
+    @Test
+    void shouldNotForecastFallingOrUnmeasuredTrends() {
+        // Arrange
+        TrendForecaster falling = new TrendForecaster(15);
+        TrendForecaster single = new TrendForecaster(15);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            falling.add(i * MINUTE, 80 - i);
+        }
+        single.add(0, 50);
+
+        // Assert
+        assertNull(falling.timeToThreshold(90, 1.96));
+        assertNull(single.timeToThreshold(90, 1.96));
+        assertTrue(Double.isNaN(single.getSlopePerMinute()));
+    }
+
+    /**
+     * Synthetic noisy series sampled at irregular intervals: compares the forecaster with the
+     * previous estimate (average first difference over 5 samples, assuming one sample per minute)
+     */
+    @Test
+    void shouldForecastMoreAccuratelyThanFixedIntervalDifferences() {
+        // Arrange
+        Random random = new Random(17);
+        int trials = 500;
+        double slope = 0.5;
+        double threshold = 95;
+        double forecasterError = 0;
+        double differenceError = 0;
+        int covered = 0;
+
+        for (int trial = 0; trial < trials; trial++) {
+            TrendForecaster forecaster = new TrendForecaster(15);
+            double[] recent = new double[5];
+            long timestamp = 0;
+            double trueValue = 0;
+            for (int i = 0; i < 60; i++) {
+                timestamp += 10_000 + random.nextInt(110_000);
+                trueValue = 20 + slope * timestamp / MINUTE;
+                double observed = trueValue + random.nextGaussian() * 2;
+                forecaster.add(timestamp, observed);
+                System.arraycopy(recent, 1, recent, 0, 4);
+                recent[4] = observed;
+            }
+            double trueEta = (threshold - trueValue) / slope;
+
+            // Act
+            TrendForecaster.TimeToThreshold eta = forecaster.timeToThreshold(threshold, 1.96);
+            double averageChange = (recent[4] - recent[0]) / 4;
+            double differenceEta = averageChange > 0 ? Math.max(0, (threshold - recent[4]) / averageChange) : 99;
+
+            forecasterError += Math.abs((eta == null ? 99 : eta.getMinutes()) - trueEta);
+            differenceError += Math.abs(differenceEta - trueEta);
+            if (eta != null && eta.getLowerMinutes() <= trueEta && trueEta <= eta.getUpperMinutes()) {
+                covered++;
+            }
+        }
+
+        // Assert
+        double forecasterMae = forecasterError / trials;
+        double differenceMae = differenceError / trials;
+        assertTrue(forecasterMae < differenceMae / 4, forecasterMae + " vs " + differenceMae);
+        assertTrue(covered >= trials * 0.9, "95% interval covered " + covered + "/" + trials);
+    }
+}
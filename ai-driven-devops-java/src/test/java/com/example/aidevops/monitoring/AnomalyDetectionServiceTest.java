@@ -0,0 +1,152 @@
+package com.example.aidevops.monitoring;
+
+import com.example.aidevops.monitoring.AnomalyDetectionService.MetricDataPoint;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.util.ModelSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for batched and model-based anomaly detection.
+ */
+public class AnomalyDetectionServiceTest {
+
+    @Test
+    void shouldReturnOnlyAnomaliesFromBatch() {
+        // Arrange
+        AnomalyDetectionService service = new AnomalyDetectionService();
+        List<MetricDataPoint> batch = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            batch.add(new MetricDataPoint("cpu", 50 + i % 2, i));
+            batch.add(new MetricDataPoint("memory", 70 + i % 2, i));
+        }
+        MetricDataPoint spike = new MetricDataPoint("memory", 700, 50);
+        batch.add(spike);
+
+        // Act
+        AnomalyDetectionService.BatchResult result = service.detectAnomalies(batch);
+
+        // Assert
+        assertEquals(101, result.getReceived());
+        assertEquals(List.of(spike), result.getAnomalies());
+        assertEquals(50, service.getHistorySize("cpu"));
+        assertEquals(51, service.getHistorySize("memory"));
+    }
+
+    @Test
+    void shouldKeepSeparateHistoryPerMetric() {
+        // Arrange
+        AnomalyDetectionService service = new AnomalyDetectionService();
+
+        // Act
+        for (int i = 0; i < 40; i++) {
+            service.detectAnomaly(new MetricDataPoint("cpu", 50));
+        }
+        boolean spikeOnNewMetric = service.detectAnomaly(new MetricDataPoint("memory", 5000));
+
+        // Assert
+        assertEquals(40, service.getHistorySize("cpu"));
+        assertEquals(1, service.getHistorySize("memory"));
+        assertFalse(spikeOnNewMetric);
+        assertEquals(0, service.getHistorySize("disk"));
+    }
+
+    @Test
+    void shouldFlagSpikeAgainstPriorWindow() {
+        // Arrange
+        AnomalyDetectionService service = new AnomalyDetectionService(100, 3.0, 0.99);
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            service.detectAnomaly(new MetricDataPoint("latency", 50 + random.nextGaussian()));
+        }
+
+        // Act
+        boolean spike = service.detectAnomaly(new MetricDataPoint("latency", 80));
+
+        // Assert
+        assertTrue(spike);
+        assertEquals(201, service.getStatistics("latency").getCount());
+        assertEquals(80, service.getStatistics("latency").getMax());
+        assertNull(service.getStatistics("unknown"));
+    }
+
+    @Test
+    void shouldMatchThresholdFallbackWithEquivalentModel(@TempDir Path dir) throws IOException {
+        // Arrange
+        AnomalyDetectionService withModel = new AnomalyDetectionService();
+        AnomalyDetectionService threshold = new AnomalyDetectionService();
+        File modelFile = dir.resolve("anomaly_detection_model.zip").toFile();
+        ModelSerializer.writeModel(zScoreModel(), modelFile, false);
+        assertTrue(withModel.loadModel(modelFile.toURI().toString()));
+
+        Random random = new Random(3);
+        List<MetricDataPoint> batch = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            double value = 50 + random.nextGaussian() * 5 + (i % 150 == 149 ? 60 : 0);
+            batch.add(new MetricDataPoint("cpu", value, i));
+        }
+
+        try {
+            // Act
+            List<MetricDataPoint> modelAnomalies = new ArrayList<>(withModel.detectAnomalies(batch.subList(0, 1000)).getAnomalies());
+            List<MetricDataPoint> thresholdAnomalies = new ArrayList<>(threshold.detectAnomalies(batch.subList(0, 1000)).getAnomalies());
+            for (MetricDataPoint metric : batch.subList(1000, 2000)) {
+                if (withModel.detectAnomaly(metric)) {
+                    modelAnomalies.add(metric);
+                }
+                if (threshold.detectAnomaly(metric)) {
+                    thresholdAnomalies.add(metric);
+                }
+            }
+
+            // Assert
+            assertFalse(thresholdAnomalies.isEmpty());
+            assertEquals(thresholdAnomalies, modelAnomalies);
+        } finally {
+            withModel.shutdown();
+        }
+    }
+
+    @Test
+    void shouldKeepThresholdScoringWhenModelIsMissing() {
+        AnomalyDetectionService service = new AnomalyDetectionService();
+
+        assertFalse(service.loadModel("classpath:models/does-not-exist.zip"));
+    }
+
+    /**
+     * Network computing sigmoid(1000 * (relu(z - 3) + relu(-z - 3)) - 1), i.e. the 3 sigma rule on the first feature
+     */
+    private static MultiLayerNetwork zScoreModel() {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder()
+                .list()
+                .layer(new DenseLayer.Builder().nIn(AnomalyDetectionService.FEATURE_COUNT).nOut(2)
+                        .activation(Activation.RELU).build())
+                .layer(new OutputLayer.Builder(LossFunctions.LossFunction.XENT).nIn(2).nOut(1)
+                        .activation(Activation.SIGMOID).build())
+                .build();
+        MultiLayerNetwork network = new MultiLayerNetwork(conf);
+        network.init();
+        network.getLayer(0).setParam("W", Nd4j.create(new float[][]{{1, -1}, {0, 0}, {0, 0}}));
+        network.getLayer(0).setParam("b", Nd4j.create(new float[][]{{-3, -3}}));
+        network.getLayer(1).setParam("W", Nd4j.create(new float[][]{{1000}, {1000}}));
+        network.getLayer(1).setParam("b", Nd4j.create(new float[][]{{-1}}));
+        return network;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.aidevops.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-metric history and the combiner that folds it into rolling statistics.
+ */
+public class MetricHistoryTest {
+
+    // Verdict = number of samples folded before this one, so each sample's position is visible
+    private static final MetricHistory.Rule POSITION = (statistics, value, features, offset) -> {
+        features[offset] = (float) statistics.getMean();
+        return (int) statistics.getCount();
+    };
+
+    @Test
+    void shouldEvaluateEachSampleAgainstTheSamplesBeforeIt() {
+        // Arrange
+        MetricHistory history = new MetricHistory(16, 5, 0.5, 1, POSITION);
+        RollingStatistics reference = new RollingStatistics(5, 0.5);
+        Random random = new Random(3);
+        float[] features = new float[1];
+
+        for (int i = 0; i < 40; i++) {
+            double value = random.nextGaussian();
+
+            // Act
+            int verdict = history.record(i, value, features, 0);
+
+            // Assert
+            assertEquals(i, verdict);
+            assertEquals((float) reference.getMean(), features[0], 1e-6f);
+            reference.add(value);
+        }
+        assertEquals(16, history.size());
+        assertEquals(reference.snapshot().getMean(), history.snapshot().getMean(), 1e-12);
+        assertEquals(40, history.snapshot().getCount());
+    }
+
+    @Test
+    void shouldFoldEveryConcurrentSampleExactlyOnce() throws Exception {
+        // Arrange
+        int threads = 4;
+        int perThread = 20_000;
+        MetricHistory history = new MetricHistory(1024, 10, 0.5, 1, POSITION);
+        boolean[] seen = new boolean[threads * perThread];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?>[] writers = new Future<?>[threads];
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            writers[t] = pool.submit(() -> {
+                float[] features = new float[1];
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    int position = history.record(i, 1.0, features, 0);
+                    assertNotEquals(MetricHistory.NO_VERDICT, position);
+                    synchronized (seen) {
+                        assertFalse(seen[position], "position " + position + " returned twice");
+                        seen[position] = true;
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Assert
+        for (boolean position : seen) {
+            assertTrue(position);
+        }
+        assertEquals(threads * perThread, history.snapshot().getCount());
+        assertEquals(1024, history.size());
+    }
+}
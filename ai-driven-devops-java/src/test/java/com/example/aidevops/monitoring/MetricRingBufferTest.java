@@ -0,0 +1,114 @@
+package com.example.aidevops.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-metric sample ring buffer.
+ */
+public class MetricRingBufferTest {
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(1, new MetricRingBuffer(1).capacity());
+        assertEquals(1024, new MetricRingBuffer(1000).capacity());
+        assertEquals(1024, new MetricRingBuffer(1024).capacity());
+    }
+
+    @Test
+    void shouldKeepOnlyLatestValuesAfterWrapping() {
+        // Arrange
+        MetricRingBuffer buffer = new MetricRingBuffer(4);
+        long last = -1;
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            last = buffer.append(i, i);
+        }
+        double[] window = new double[8];
+        int copied = buffer.copyValues(last, 8, window);
+
+        // Assert
+        assertEquals(10, buffer.count());
+        assertEquals(4, copied);
+        assertArrayEquals(new double[]{6, 7, 8, 9}, Arrays.copyOf(window, copied));
+        assertEquals(9L, buffer.timestampAt(last));
+        assertEquals(-1L, buffer.timestampAt(0));
+    }
+
+    @Test
+    void shouldCopyGapFreeWindowWhileWriting() throws InterruptedException {
+        // Arrange: a single writer appends 0, 1, 2, ... so a window must be consecutive values
+        MetricRingBuffer buffer = new MetricRingBuffer(1024);
+        int total = 2_000_000;
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                buffer.append(i, i);
+            }
+        });
+        double[] window = new double[256];
+
+        // Act & Assert
+        writer.start();
+        while (writer.isAlive()) {
+            long last = buffer.count() - 1;
+            if (last < 0) {
+                continue;
+            }
+            int copied = buffer.copyValues(last, window.length, window);
+            for (int i = 1; i < copied; i++) {
+                assertEquals(window[i - 1] + 1, window[i]);
+            }
+            // Unless the writer lapped into the window mid-copy, nothing may be missing
+            if (buffer.count() - last <= buffer.capacity() - window.length) {
+                assertEquals(Math.min(last + 1, window.length), copied);
+                assertEquals(last, (long) window[copied - 1]);
+            }
+        }
+        writer.join();
+    }
+
+    @Test
+    void shouldNotLoseSamplesUnderConcurrentWriters() throws InterruptedException {
+        // Arrange
+        MetricRingBuffer buffer = new MetricRingBuffer(1 << 16);
+        int threads = 8;
+        int perThread = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    buffer.append(i, 1.0);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        double[] all = new double[threads * perThread];
+        int copied = buffer.copyValues(buffer.count() - 1, all.length, all);
+        assertEquals(threads * perThread, buffer.count());
+        assertEquals(threads * perThread, copied);
+        for (int i = 0; i < copied; i++) {
+            assertEquals(1.0, all[i]);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.aidevops.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the online per-metric statistics.
+ */
+public class RollingStatisticsTest {
+
+    @Test
+    void shouldMatchBruteForceWindowStatistics() {
+        // Arrange
+        int windowSize = 50;
+        RollingStatistics stats = new RollingStatistics(windowSize, 0.5);
+        Random random = new Random(42);
+        double[] samples = new double[1000];
+
+        for (int i = 0; i < samples.length; i++) {
+            // Act
+            samples[i] = 100 + random.nextGaussian() * 10 + (i % 97);
+            stats.add(samples[i]);
+
+            // Assert
+            double[] window = Arrays.copyOfRange(samples, Math.max(0, i - windowSize + 1), i + 1);
+            double mean = Arrays.stream(window).average().orElseThrow();
+            double variance = Arrays.stream(window).map(v -> (v - mean) * (v - mean)).sum() / window.length;
+            assertEquals(mean, stats.getMean(), 1e-9);
+            assertEquals(Math.sqrt(variance), stats.getStdDev(), 1e-6);
+            assertEquals(Arrays.stream(window).min().orElseThrow(), stats.getMin());
+            assertEquals(Arrays.stream(window).max().orElseThrow(), stats.getMax());
+        }
+        assertEquals(1000, stats.getCount());
+        assertEquals(windowSize, stats.getWindowCount());
+    }
+
+    @Test
+    void shouldEstimateQuantileOfStream() {
+        // Arrange
+        RollingStatistics stats = new RollingStatistics(10, 0.99);
+        Random random = new Random(7);
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            stats.add(random.nextDouble() * 1000);
+        }
+
+        // Assert
+        assertEquals(990, stats.getQuantileEstimate(), 5);
+    }
+
+    @Test
+    void shouldTrackShiftWithEwma() {
+        // Arrange
+        RollingStatistics stats = new RollingStatistics(10, 0.5);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            stats.add(i < 100 ? 10 : 20);
+        }
+
+        // Assert
+        assertEquals(20, stats.getEwmaMean(), 1e-6);
+        assertEquals(0, stats.getEwmaStdDev(), 1e-3);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.aidevops.testing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for package-level test generation.
+ */
+public class TestGenerationServiceTest {
+
+    @TempDir
+    Path target;
+
+    private final TestGenerationService service = new TestGenerationService(4, "unused");
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void shouldWriteOneTestFilePerConcreteClass() throws Exception {
+        // Arrange
+        AtomicLong streamed = new AtomicLong();
+        Set<String> targetClasses = ConcurrentHashMap.newKeySet();
+
+        // Act
+        TestGenerationService.GenerationReport report = service.generatePackageTests(
+                "com.example.aidevops.cicd", target, testCase -> {
+                    streamed.incrementAndGet();
+                    targetClasses.add(testCase.getTargetClass());
+                });
+
+        // Assert
+        Path generated = target.resolve("com/example/aidevops/cicd/PredictiveCiCdServiceGeneratedTest.java");
+        assertTrue(Files.exists(generated));
+        String code = Files.readString(generated);
+        assertTrue(code.startsWith("package com.example.aidevops.cicd;"));
+        assertTrue(code.contains("void testBusinessLogicWithValidInput()"));
+        assertTrue(code.contains("void testNullHandling()"));
+        // Nested classes are skipped
+        assertFalse(Files.exists(target.resolve("com/example/aidevops/cicd/PathRiskMatcher$RuleGeneratedTest.java")));
+        assertEquals(report.getTestCases(), streamed.get());
+        assertEquals(report.getClasses(), targetClasses.size());
+        assertTrue(report.getSkippedClasses() > 0);
+        assertEquals(0, report.getFailedClasses());
+        assertTrue(report.getTestCasesPerSecond() > 0);
+    }
+
+    @Test
+    void shouldRejectInvalidPackageName() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.generatePackageTests("../../etc", target, testCase -> { }));
+    }
+
+    @Test
+    void shouldRejectSingleSegmentPackage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.generatePackageTests("org", target, testCase -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.generatePackageTests("com", target, testCase -> { }));
+    }
+
+    @Test
+    void shouldRejectOverlappingRunIntoSameTarget() throws Exception {
+        // Arrange: hold the first run open from inside its listener
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread first = new Thread(() -> {
+            try {
+                service.generatePackageTests("com.example.aidevops.cicd", target, testCase -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        first.start();
+        assertTrue(started.await(30, TimeUnit.SECONDS));
+
+        // Act & Assert: the same directory, spelled differently, is still taken
+        try {
+            assertThrows(IllegalStateException.class,
+                    () -> service.generatePackageTests("com.example.aidevops.cicd",
+                            target.resolve("sub/..").toAbsolutePath(), testCase -> { }));
+        } finally {
+            release.countDown();
+            first.join();
+        }
+
+        // Once the first run finishes the directory is free again
+        TestGenerationService.GenerationReport report = service.generatePackageTests(
+                "com.example.aidevops.cicd", target, testCase -> { });
+        assertTrue(report.getClasses() > 0);
+    }
+
+    @Test
+    void shouldReportEmptyPackage() throws Exception {
+        // Act
+        TestGenerationService.GenerationReport report = service.generatePackageTests("com.example.nothing", target, testCase -> { });
+
+        // Assert
+        assertEquals(0, report.getClasses());
+        assertEquals(0, report.getTestCases());
+    }
+}
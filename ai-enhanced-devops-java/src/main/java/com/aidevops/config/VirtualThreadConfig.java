@@ -0,0 +1,67 @@
+package com.aidevops.config;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Moves request handling and the AI monitoring schedule onto virtual threads
+ * when spring.threads.virtual.enabled=true, so requests waiting on remote AI
+ * services no longer hold one of Tomcat's platform threads.
+ * Requires a Java 21+ runtime; the API is resolved reflectively because the
+ * build still targets Java 17.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        Optional<ThreadFactory> factory = virtualThreadFactory("http-vt-");
+        if (factory.isEmpty()) {
+            logger.warn("Virtual threads requested but not supported by this JVM; keeping the Tomcat thread pool");
+            return protocolHandler -> { };
+        }
+        logger.info("Tomcat requests will run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(new SimpleAsyncTaskExecutor(factory.get()));
+    }
+
+    /**
+     * Scheduler for @Scheduled jobs such as AIEnhancedMonitor.monitorSystem; Spring shuts it down on context close
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(
+            @Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.setDaemon(true);
+        virtualThreadFactory("scheduling-vt-").ifPresent(scheduler::setThreadFactory);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+
+    static Optional<ThreadFactory> virtualThreadFactory(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
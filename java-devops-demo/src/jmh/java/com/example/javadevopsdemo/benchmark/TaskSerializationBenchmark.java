@@ -0,0 +1,51 @@
+package com.example.javadevopsdemo.benchmark;
+
+import com.example.javadevopsdemo.model.Task;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of Task lists, using the same ObjectMapper setup as Spring MVC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+    
+    @Param({"100", "10000"})
+    private int size;
+    
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<Task> tasks;
+    private byte[] json;
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task("Task " + i, "Description for task " + i);
+            task.setId((long) i);
+            tasks.add(task);
+        }
+        json = objectMapper.writeValueAsBytes(tasks);
+    }
+    
+    @Benchmark
+    public byte[] serializeTasks() throws Exception {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+    
+    @Benchmark
+    public List<Task> deserializeTasks() throws Exception {
+        return objectMapper.readValue(json, new TypeReference<List<Task>>() { });
+    }
+}
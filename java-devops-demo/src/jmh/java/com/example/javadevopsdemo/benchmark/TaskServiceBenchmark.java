@@ -0,0 +1,87 @@
+package com.example.javadevopsdemo.benchmark;
+
+import com.example.javadevopsdemo.JavaDevopsDemoApplication;
+import com.example.javadevopsdemo.model.Task;
+import com.example.javadevopsdemo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskService CRUD and queries against the embedded H2 database
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+    
+    private static final int SEEDED_TASKS = 5_000;
+    
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private List<Long> ids;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(JavaDevopsDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "spring.jpa.show-sql=false")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        
+        ids = new ArrayList<>(SEEDED_TASKS);
+        for (int i = 0; i < SEEDED_TASKS; i++) {
+            Task task = new Task("Task " + i, "Description for task " + i);
+            task.setCompleted(i % 3 == 0);
+            ids.add(taskService.saveTask(task).getId());
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+    
+    @Benchmark
+    public Optional<Task> findTaskById() {
+        return taskService.findTaskById(randomId());
+    }
+    
+    @Benchmark
+    public List<Task> searchTasks() {
+        return taskService.searchTasks("Task " + ThreadLocalRandom.current().nextInt(SEEDED_TASKS));
+    }
+    
+    @Benchmark
+    public List<Task> findCompletedTasks() {
+        return taskService.findCompletedTasks();
+    }
+    
+    @Benchmark
+    public Task updateTask() {
+        Task task = new Task("Updated", "Updated description");
+        task.setId(randomId());
+        return taskService.saveTask(task);
+    }
+    
+    @Benchmark
+    public Task createAndDeleteTask() {
+        Task task = taskService.saveTask(new Task("Temp", "Temporary task"));
+        taskService.deleteTask(task.getId());
+        return task;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.javadevopsdemo.controller;
 
+import com.example.javadevopsdemo.model.DailyTaskCount;
 import com.example.javadevopsdemo.model.Task;
+import com.example.javadevopsdemo.model.TaskSummary;
 import com.example.javadevopsdemo.service.TaskService;
 import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
@@ -10,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -27,6 +30,38 @@ public class DemoController {
         return ResponseEntity.ok(taskService.findAllTasks());
     }
     
+    /**
+     * One page of ranked matches; size is capped at TaskService.MAX_SEARCH_RESULTS, and a size
+     * below 1 or a negative page is a bad request (400)
+     */
+    @GetMapping("/search")
+    @Timed(value = "search.tasks", description = "Time taken to search tasks")
+    public ResponseEntity<List<Task>> searchTasks(@RequestParam("q") String query,
+                                                  @RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        logger.info("Searching tasks for '{}' (page {}, size {})", query, page, size);
+        if (size < 1 || page < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taskService.searchTasks(query, page, size));
+    }
+    
+    @GetMapping("/stats/status")
+    public ResponseEntity<Map<String, Long>> getStatusCounts() {
+        return ResponseEntity.ok(taskService.countTasksByStatus());
+    }
+    
+    @GetMapping("/stats/completions")
+    public ResponseEntity<List<DailyTaskCount>> getCompletionsPerDay(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(taskService.countCompletionsPerDay(days));
+    }
+    
+    @GetMapping("/recent")
+    public ResponseEntity<List<TaskSummary>> getRecentTasks(@RequestParam(defaultValue = "false") boolean completed,
+                                                            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(taskService.findRecentTasks(completed, limit));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
         logger.info("Fetching task with id {}", id);
@@ -0,0 +1,13 @@
+package com.example.javadevopsdemo.model;
+
+import java.time.LocalDate;
+
+/**
+ * Number of tasks completed on a given day
+ */
+public interface DailyTaskCount {
+    
+    LocalDate getDay();
+    
+    long getTotal();
+}
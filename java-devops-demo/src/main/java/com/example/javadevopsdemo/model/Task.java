@@ -4,9 +4,16 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+    // Status counts and "most recent N" per status are answered from this index
+    @Index(name = "idx_task_completed_created_at", columnList = "completed, createdAt"),
+    @Index(name = "idx_task_completed_completed_at", columnList = "completed, completedAt")
+})
 public class Task {
     
     @Id
@@ -18,6 +25,7 @@ public class Task {
     private boolean completed;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
     
     public Task() {
         this.createdAt = LocalDateTime.now();
@@ -62,12 +70,21 @@ public class Task {
     
     public void setCompleted(boolean completed) {
         this.completed = completed;
+        if (!completed) {
+            this.completedAt = null;
+        } else if (this.completedAt == null) {
+            this.completedAt = LocalDateTime.now();
+        }
     }
     
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
     
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
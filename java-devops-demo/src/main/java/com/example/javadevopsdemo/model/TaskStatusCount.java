@@ -0,0 +1,11 @@
+package com.example.javadevopsdemo.model;
+
+/**
+ * Number of tasks with a given completion status
+ */
+public interface TaskStatusCount {
+    
+    boolean isCompleted();
+    
+    long getTotal();
+}
@@ -0,0 +1,17 @@
+package com.example.javadevopsdemo.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of a task for dashboard lists; no entity is hydrated
+ */
+public interface TaskSummary {
+    
+    Long getId();
+    
+    String getTitle();
+    
+    boolean isCompleted();
+    
+    LocalDateTime getCreatedAt();
+}
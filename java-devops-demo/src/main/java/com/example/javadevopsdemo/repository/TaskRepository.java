@@ -1,9 +1,16 @@
 package com.example.javadevopsdemo.repository;
 
+import com.example.javadevopsdemo.model.DailyTaskCount;
 import com.example.javadevopsdemo.model.Task;
+import com.example.javadevopsdemo.model.TaskStatusCount;
+import com.example.javadevopsdemo.model.TaskSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,4 +21,19 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     
     // Find tasks containing a title keyword
     List<Task> findByTitleContaining(String keyword);
-}
\ No newline at end of file
+    
+    // Task counts per completion status, grouped on the (completed, createdAt) index
+    @Query("select t.completed as completed, count(t) as total from Task t group by t.completed")
+    List<TaskStatusCount> countByStatus();
+    
+    // Completed tasks per calendar day since the given time
+    @Query("select cast(t.completedAt as LocalDate) as day, count(t) as total from Task t "
+            + "where t.completed = true and t.completedAt >= :since "
+            + "group by cast(t.completedAt as LocalDate) order by cast(t.completedAt as LocalDate)")
+    List<DailyTaskCount> countCompletionsPerDay(@Param("since") LocalDateTime since);
+    
+    // Most recently created tasks with the given status, read in index order
+    @Query("select t.id as id, t.title as title, t.completed as completed, t.createdAt as createdAt "
+            + "from Task t where t.completed = :completed order by t.createdAt desc")
+    List<TaskSummary> findRecentByCompleted(@Param("completed") boolean completed, Pageable pageable);
+}
@@ -0,0 +1,215 @@
+package com.example.javadevopsdemo.search;
+
+import com.example.javadevopsdemo.model.Task;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over task titles and descriptions.
+ * 
+ * Terms live in a sorted dictionary so prefix queries are a range scan rather than
+ * a table scan. Every query term must match (AND); the last term, or any term ending
+ * in '*', matches as a prefix. Results are ranked by TF-IDF with title hits weighted
+ * above description hits.
+ */
+@Component
+public class TaskSearchIndex {
+    
+    static final float TITLE_WEIGHT = 3.0f;
+    static final float DESCRIPTION_WEIGHT = 1.0f;
+    
+    // term -> (task id -> term weight in that task)
+    private final ConcurrentSkipListMap<String, Map<Long, Float>> postings = new ConcurrentSkipListMap<>();
+    // task id -> terms indexed for it, so updates and deletes can remove stale postings
+    private final Map<Long, Set<String>> documentTerms = new ConcurrentHashMap<>();
+    
+    /**
+     * Adds or replaces the index entry for a saved task
+     */
+    public synchronized void index(Task task) {
+        if (task.getId() == null) {
+            return;
+        }
+        remove(task.getId());
+        
+        Map<String, Float> weights = new HashMap<>();
+        for (String term : tokenize(task.getTitle())) {
+            weights.merge(term, TITLE_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(task.getDescription())) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new ConcurrentHashMap<>())
+                    .put(task.getId(), entry.getValue());
+        }
+        documentTerms.put(task.getId(), Set.copyOf(weights.keySet()));
+    }
+    
+    /**
+     * Drops a task from the index
+     */
+    public synchronized void remove(Long taskId) {
+        Set<String> terms = documentTerms.remove(taskId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(taskId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+    
+    public synchronized void clear() {
+        postings.clear();
+        documentTerms.clear();
+    }
+    
+    public int size() {
+        return documentTerms.size();
+    }
+    
+    /**
+     * Returns one page of matching task ids, best match first
+     */
+    public SearchPage search(String query, int page, int size) {
+        List<String> terms = new ArrayList<>();
+        List<Boolean> prefixes = new ArrayList<>();
+        parseQuery(query, terms, prefixes);
+        if (terms.isEmpty() || size <= 0 || page < 0) {
+            return new SearchPage(Collections.emptyList(), 0);
+        }
+        
+        double documentCount = Math.max(1, documentTerms.size());
+        Map<Long, Double> scores = null;
+        for (int i = 0; i < terms.size(); i++) {
+            Map<Long, Double> termScores = scoreTerm(terms.get(i), prefixes.get(i), documentCount);
+            scores = scores == null ? termScores : intersect(scores, termScores);
+            if (scores.isEmpty()) {
+                return new SearchPage(Collections.emptyList(), 0);
+            }
+        }
+        
+        // Keep only the top (page + 1) * size hits instead of sorting every match
+        long wanted = Math.min((long) (page + 1) * size, scores.size());
+        if (wanted <= (long) page * size) {
+            return new SearchPage(Collections.emptyList(), scores.size());
+        }
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>((int) wanted, TaskSearchIndex::compareHits);
+        for (Map.Entry<Long, Double> hit : scores.entrySet()) {
+            if (top.size() < wanted) {
+                top.add(hit);
+            } else if (compareHits(hit, top.peek()) > 0) {
+                top.poll();
+                top.add(hit);
+            }
+        }
+        
+        List<Long> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(top.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return new SearchPage(ranked.subList(page * size, ranked.size()), scores.size());
+    }
+    
+    private Map<Long, Double> scoreTerm(String term, boolean prefix, double documentCount) {
+        Map<Long, Double> scores = new HashMap<>();
+        NavigableMap<String, Map<Long, Float>> matches = prefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                : postings.subMap(term, true, term, true);
+        for (Map<Long, Float> docs : matches.values()) {
+            double idf = Math.log(1.0 + documentCount / docs.size());
+            for (Map.Entry<Long, Float> doc : docs.entrySet()) {
+                // A prefix can expand to several terms in one task; keep the strongest
+                scores.merge(doc.getKey(), doc.getValue() * idf, Math::max);
+            }
+        }
+        return scores;
+    }
+    
+    private static Map<Long, Double> intersect(Map<Long, Double> left, Map<Long, Double> right) {
+        Map<Long, Double> smaller = left.size() <= right.size() ? left : right;
+        Map<Long, Double> larger = smaller == left ? right : left;
+        Map<Long, Double> result = new HashMap<>();
+        for (Map.Entry<Long, Double> entry : smaller.entrySet()) {
+            Double other = larger.get(entry.getKey());
+            if (other != null) {
+                result.put(entry.getKey(), entry.getValue() + other);
+            }
+        }
+        return result;
+    }
+    
+    // Higher score wins; ties go to the newer (higher) id for a stable order
+    private static int compareHits(Map.Entry<Long, Double> a, Map.Entry<Long, Double> b) {
+        int byScore = Double.compare(a.getValue(), b.getValue());
+        return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+    }
+    
+    private static void parseQuery(String query, List<String> terms, List<Boolean> prefixes) {
+        if (query == null) {
+            return;
+        }
+        String[] parts = query.trim().split("\\s+");
+        for (int i = 0; i < parts.length; i++) {
+            boolean prefix = parts[i].endsWith("*") || i == parts.length - 1;
+            List<String> tokens = tokenize(parts[i]);
+            for (int j = 0; j < tokens.size(); j++) {
+                terms.add(tokens.get(j));
+                prefixes.add(prefix && j == tokens.size() - 1);
+            }
+        }
+    }
+    
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    /**
+     * Ranked task ids for one page plus the total number of matching tasks
+     */
+    public static class SearchPage {
+        private final List<Long> taskIds;
+        private final int totalHits;
+        
+        public SearchPage(List<Long> taskIds, int totalHits) {
+            this.taskIds = taskIds;
+            this.totalHits = totalHits;
+        }
+        
+        public List<Long> getTaskIds() {
+            return taskIds;
+        }
+        
+        public int getTotalHits() {
+            return totalHits;
+        }
+    }
+}
@@ -1,20 +1,51 @@
 package com.example.javadevopsdemo.service;
 
+import com.example.javadevopsdemo.model.DailyTaskCount;
 import com.example.javadevopsdemo.model.Task;
+import com.example.javadevopsdemo.model.TaskStatusCount;
+import com.example.javadevopsdemo.model.TaskSummary;
 import com.example.javadevopsdemo.repository.TaskRepository;
+import com.example.javadevopsdemo.search.TaskSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
     
+    public static final int MAX_RECENT_TASKS = 100;
+    public static final int MAX_SEARCH_RESULTS = 100;
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+    
     @Autowired
     private TaskRepository taskRepository;
     
+    @Autowired
+    private TaskSearchIndex searchIndex;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        searchIndex.clear();
+        taskRepository.findAll().forEach(searchIndex::index);
+        logger.info("Search index built for {} tasks", searchIndex.size());
+    }
+    
     public List<Task> findAllTasks() {
         return taskRepository.findAll();
     }
@@ -28,11 +59,14 @@ public class TaskService {
             // This is an update operation
             task.setUpdatedAt(LocalDateTime.now());
         }
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        searchIndex.index(saved);
+        return saved;
     }
     
     public void deleteTask(Long id) {
         taskRepository.deleteById(id);
+        searchIndex.remove(id);
     }
     
     public List<Task> findCompletedTasks() {
@@ -43,7 +77,62 @@ public class TaskService {
         return taskRepository.findByCompleted(false);
     }
     
+    /**
+     * Task counts keyed by "completed" and "pending", without loading any task
+     */
+    public Map<String, Long> countTasksByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("completed", 0L);
+        counts.put("pending", 0L);
+        for (TaskStatusCount count : taskRepository.countByStatus()) {
+            counts.put(count.isCompleted() ? "completed" : "pending", count.getTotal());
+        }
+        return counts;
+    }
+    
+    /**
+     * Completions per day over the last given number of days, including today
+     */
+    public List<DailyTaskCount> countCompletionsPerDay(int days) {
+        LocalDateTime since = LocalDate.now().minusDays(Math.max(days, 1) - 1L).atStartOfDay();
+        return taskRepository.countCompletionsPerDay(since);
+    }
+    
+    /**
+     * The newest tasks with the given status, as summaries
+     */
+    public List<TaskSummary> findRecentTasks(boolean completed, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_RECENT_TASKS));
+        return taskRepository.findRecentByCompleted(completed, PageRequest.of(0, size));
+    }
+    
+    /**
+     * The best MAX_SEARCH_RESULTS matches for the keyword
+     */
     public List<Task> searchTasks(String keyword) {
-        return taskRepository.findByTitleContaining(keyword);
+        return searchTasks(keyword, 0, MAX_SEARCH_RESULTS);
+    }
+    
+    /**
+     * Ranked full-text search over title and description, served from the in-memory index.
+     * Pages hold at most MAX_SEARCH_RESULTS tasks, so one request never loads the whole index.
+     */
+    public List<Task> searchTasks(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_RESULTS));
+        List<Long> ids = searchIndex.search(query, page, pageSize).getTaskIds();
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        Map<Long, Task> tasksById = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Task> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Task task = tasksById.get(id);
+            if (task != null) {
+                ranked.add(task);
+            }
+        }
+        return ranked;
     }
 }
\ No newline at end of file
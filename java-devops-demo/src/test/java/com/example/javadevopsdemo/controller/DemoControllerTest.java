@@ -11,7 +11,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -101,4 +103,36 @@ public class DemoControllerTest {
         assertEquals(1L, response.getBody().getId());
         verify(taskService, times(1)).saveTask(any(Task.class));
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testGetStatusCounts() {
+        // Prepare mock data
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("completed", 3L);
+        counts.put("pending", 5L);
+        
+        // Mock service response
+        when(taskService.countTasksByStatus()).thenReturn(counts);
+        
+        // Execute the controller method
+        ResponseEntity<Map<String, Long>> response = controller.getStatusCounts();
+        
+        // Verify the result
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(5L, response.getBody().get("pending"));
+        verify(taskService, times(1)).countTasksByStatus();
+        verify(taskService, never()).findCompletedTasks();
+    }
+    
+    @Test
+    public void testSearchTasks_InvalidPaging() {
+        // Execute the controller method with an empty page size and a negative page
+        ResponseEntity<List<Task>> emptySize = controller.searchTasks("deploy", 0, 0);
+        ResponseEntity<List<Task>> negativePage = controller.searchTasks("deploy", -1, 20);
+        
+        // Verify the result
+        assertEquals(HttpStatus.BAD_REQUEST, emptySize.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, negativePage.getStatusCode());
+        verify(taskService, never()).searchTasks(anyString(), anyInt(), anyInt());
+    }
+}
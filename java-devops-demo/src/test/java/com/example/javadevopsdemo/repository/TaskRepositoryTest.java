@@ -0,0 +1,142 @@
+package com.example.javadevopsdemo.repository;
+
+import com.example.javadevopsdemo.model.DailyTaskCount;
+import com.example.javadevopsdemo.model.Task;
+import com.example.javadevopsdemo.model.TaskStatusCount;
+import com.example.javadevopsdemo.model.TaskSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the dashboard queries in TaskRepository against the embedded database
+ */
+@DataJpaTest
+public class TaskRepositoryTest {
+    
+    private static final LocalDateTime DAY_START = LocalDateTime.of(2024, 3, 10, 0, 0);
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Task has no setters for its timestamps, so they are placed directly in the table
+    private Long saveTask(String title, LocalDateTime createdAt, LocalDateTime completedAt) {
+        Task task = new Task(title, null);
+        task.setCompleted(completedAt != null);
+        Long id = entityManager.persistAndFlush(task).getId();
+        jdbcTemplate.update("update task set created_at = ?, completed_at = ? where id = ?", createdAt, completedAt, id);
+        entityManager.clear();
+        return id;
+    }
+    
+    @Test
+    public void testCountByStatus() {
+        // Arrange
+        saveTask("open 1", DAY_START, null);
+        saveTask("open 2", DAY_START, null);
+        saveTask("done", DAY_START, DAY_START.plusHours(1));
+        
+        // Act
+        List<TaskStatusCount> counts = taskRepository.countByStatus();
+        
+        // Assert
+        assertEquals(2, counts.size());
+        for (TaskStatusCount count : counts) {
+            assertEquals(count.isCompleted() ? 1L : 2L, count.getTotal());
+        }
+    }
+    
+    @Test
+    public void testCountCompletionsPerDay_GroupsByCalendarDaySince() {
+        // Arrange
+        saveTask("before since", DAY_START.minusDays(2), DAY_START.minusSeconds(1));
+        saveTask("day one morning", DAY_START, DAY_START.plusHours(8));
+        saveTask("day one midnight", DAY_START, DAY_START.plusDays(1).minusSeconds(1));
+        saveTask("day two", DAY_START, DAY_START.plusDays(1));
+        saveTask("day four", DAY_START, DAY_START.plusDays(3).plusHours(12));
+        saveTask("still open", DAY_START, null);
+        
+        // Act
+        List<DailyTaskCount> days = taskRepository.countCompletionsPerDay(DAY_START);
+        
+        // Assert
+        assertEquals(Arrays.asList(LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 13)),
+                days.stream().map(DailyTaskCount::getDay).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(2L, 1L, 1L),
+                days.stream().map(DailyTaskCount::getTotal).collect(Collectors.toList()));
+    }
+    
+    @Test
+    public void testFindRecentByCompleted_NewestFirstWithinStatus() {
+        // Arrange
+        saveTask("open oldest", DAY_START, null);
+        saveTask("open newest", DAY_START.plusDays(2), null);
+        saveTask("open middle", DAY_START.plusDays(1), null);
+        saveTask("done newest", DAY_START.plusDays(3), DAY_START.plusDays(3));
+        
+        // Act
+        List<TaskSummary> recent = taskRepository.findRecentByCompleted(false, PageRequest.of(0, 2));
+        
+        // Assert
+        assertEquals(Arrays.asList("open newest", "open middle"),
+                recent.stream().map(TaskSummary::getTitle).collect(Collectors.toList()));
+        assertEquals(DAY_START.plusDays(2), recent.get(0).getCreatedAt());
+        assertNotNull(recent.get(0).getId());
+        assertTrue(recent.stream().noneMatch(TaskSummary::isCompleted));
+    }
+    
+    @Test
+    public void testSetCompleted_StoresAndClearsCompletedAt() {
+        // Arrange
+        Task task = new Task("Task", "Description");
+        task.setCompleted(true);
+        LocalDateTime completedAt = task.getCompletedAt();
+        
+        // Act: completing again keeps the first completion time
+        task.setCompleted(true);
+        Long id = entityManager.persistAndFlush(task).getId();
+        entityManager.clear();
+        Task stored = taskRepository.findById(id).get();
+        
+        // Assert
+        assertNotNull(completedAt);
+        // The column keeps microseconds
+        assertEquals(completedAt.truncatedTo(ChronoUnit.MICROS), stored.getCompletedAt().truncatedTo(ChronoUnit.MICROS));
+        stored.setCompleted(false);
+        entityManager.flush();
+        entityManager.clear();
+        assertNull(taskRepository.findById(id).get().getCompletedAt());
+    }
+    
+    @Test
+    public void testStatusIndexesAreCreated() {
+        // Act
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select lower(index_name) from information_schema.indexes where lower(table_name) = 'task'", String.class);
+        
+        // Assert
+        assertTrue(indexes.contains("idx_task_completed_created_at"), indexes.toString());
+        assertTrue(indexes.contains("idx_task_completed_completed_at"), indexes.toString());
+    }
+}
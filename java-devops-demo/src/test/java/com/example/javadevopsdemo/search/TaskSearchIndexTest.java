@@ -0,0 +1,69 @@
+package com.example.javadevopsdemo.search;
+
+import com.example.javadevopsdemo.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskSearchIndexTest {
+    
+    private TaskSearchIndex index;
+    
+    @BeforeEach
+    public void setup() {
+        index = new TaskSearchIndex();
+        index.index(task(1L, "Deploy release", "Roll out the payment service"));
+        index.index(task(2L, "Fix payment bug", "Checkout fails on retry"));
+        index.index(task(3L, "Write docs", "Document the deployment pipeline"));
+    }
+    
+    private static Task task(Long id, String title, String description) {
+        Task task = new Task(title, description);
+        task.setId(id);
+        return task;
+    }
+    
+    @Test
+    public void testTitleMatchesRankAboveDescriptionMatches() {
+        List<Long> ids = index.search("payment", 0, 10).getTaskIds();
+        
+        assertEquals(Arrays.asList(2L, 1L), ids);
+    }
+    
+    @Test
+    public void testPrefixQueryMatchesAllExpansions() {
+        TaskSearchIndex.SearchPage page = index.search("deploy*", 0, 10);
+        
+        assertEquals(2, page.getTotalHits());
+        assertTrue(page.getTaskIds().containsAll(Arrays.asList(1L, 3L)));
+    }
+    
+    @Test
+    public void testAllTermsMustMatch() {
+        assertEquals(Arrays.asList(2L), index.search("payment checkout", 0, 10).getTaskIds());
+    }
+    
+    @Test
+    public void testPagination() {
+        TaskSearchIndex.SearchPage second = index.search("payment", 1, 1);
+        
+        assertEquals(2, second.getTotalHits());
+        assertEquals(Arrays.asList(1L), second.getTaskIds());
+        assertTrue(index.search("payment", 2, 1).getTaskIds().isEmpty());
+    }
+    
+    @Test
+    public void testReindexAndRemoveDropStalePostings() {
+        index.index(task(2L, "Fix login bug", "Session expires early"));
+        assertEquals(Arrays.asList(1L), index.search("payment", 0, 10).getTaskIds());
+        
+        index.remove(1L);
+        assertTrue(index.search("payment", 0, 10).getTaskIds().isEmpty());
+        assertEquals(2, index.size());
+    }
+}
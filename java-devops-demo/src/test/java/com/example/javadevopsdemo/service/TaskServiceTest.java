@@ -0,0 +1,69 @@
+package com.example.javadevopsdemo.service;
+
+import com.example.javadevopsdemo.model.Task;
+import com.example.javadevopsdemo.repository.TaskRepository;
+import com.example.javadevopsdemo.search.TaskSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class TaskServiceTest {
+    
+    @Mock
+    private TaskRepository taskRepository;
+    
+    @Mock
+    private TaskSearchIndex searchIndex;
+    
+    @InjectMocks
+    private TaskService taskService;
+    
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+    
+    @Test
+    public void testSearchTasks_CapsPageSize() {
+        // Mock an index hit list in rank order
+        when(searchIndex.search("deploy", 2, TaskService.MAX_SEARCH_RESULTS))
+                .thenReturn(new TaskSearchIndex.SearchPage(Arrays.asList(2L, 1L), 2));
+        when(taskRepository.findAllById(Arrays.asList(2L, 1L)))
+                .thenReturn(Arrays.asList(task(1L), task(2L)));
+        
+        // Ask for far more than one page may hold
+        List<Task> tasks = taskService.searchTasks("deploy", 2, Integer.MAX_VALUE);
+        
+        // Verify the index was asked for a capped page and the ranking kept
+        assertEquals(Arrays.asList(2L, 1L), Arrays.asList(tasks.get(0).getId(), tasks.get(1).getId()));
+        verify(searchIndex, times(1)).search("deploy", 2, TaskService.MAX_SEARCH_RESULTS);
+    }
+    
+    @Test
+    public void testSearchTasks_KeywordOnlyReadsFirstCappedPage() {
+        // Mock an empty index result
+        when(searchIndex.search(anyString(), anyInt(), anyInt()))
+                .thenReturn(new TaskSearchIndex.SearchPage(List.of(), 0));
+        
+        // Execute the keyword-only search
+        taskService.searchTasks("deploy");
+        
+        // Verify no unbounded page was requested and nothing was loaded
+        verify(searchIndex, times(1)).search("deploy", 0, TaskService.MAX_SEARCH_RESULTS);
+        verifyNoInteractions(taskRepository);
+    }
+    
+    private static Task task(Long id) {
+        Task task = new Task("Task " + id, null);
+        task.setId(id);
+        return task;
+    }
+}
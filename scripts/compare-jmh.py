@@ -0,0 +1,50 @@
+#!/usr/bin/env python3
+"""
+Compares two JMH JSON result files (target/jmh-result.json) and flags regressions.
+
+Usage: scripts/compare-jmh.py <baseline.json> <current.json> [threshold-percent]
+Exits with status 1 if any benchmark regressed by more than the threshold (default 10%).
+"""
+import json
+import sys
+
+
+def load(path):
+    results = {}
+    with open(path) as f:
+        for entry in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted((entry.get("params") or {}).items()))
+            key = entry["benchmark"] + (f"[{params}]" if params else "")
+            metric = entry["primaryMetric"]
+            results[key] = (entry["mode"], metric["score"], metric["scoreUnit"])
+    return results
+
+
+def main():
+    if len(sys.argv) < 3:
+        print(__doc__)
+        sys.exit(2)
+
+    baseline = load(sys.argv[1])
+    current = load(sys.argv[2])
+    threshold = float(sys.argv[3]) if len(sys.argv) > 3 else 10.0
+
+    regressions = 0
+    for key in sorted(current):
+        mode, score, unit = current[key]
+        if key not in baseline:
+            print(f"NEW        {key}: {score:.3f} {unit}")
+            continue
+        old = baseline[key][1]
+        # Throughput: higher is better; time modes: lower is better
+        change = (score - old) / old * 100 if old else 0.0
+        worse = -change if mode == "thrpt" else change
+        status = "REGRESSED" if worse > threshold else "ok"
+        regressions += status == "REGRESSED"
+        print(f"{status:<10} {key}: {old:.3f} -> {score:.3f} {unit} ({change:+.1f}%)")
+
+    sys.exit(1 if regressions else 0)
+
+
+if __name__ == "__main__":
+    main()
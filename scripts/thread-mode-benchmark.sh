@@ -0,0 +1,69 @@
+#!/bin/bash
+# Compares concurrent-connection throughput of ai-devops-java-demo with the
+# default Tomcat platform-thread pool against virtual-thread request handling.
+# The default path streams every task through the JDBC-backed export, so each
+# request holds its thread while it waits on the database.
+#
+# Usage: scripts/thread-mode-benchmark.sh <app.jar> [path] [concurrency] [requests]
+# Requires: a Java 21+ runtime on PATH and `hey` (https://github.com/rakyll/hey)
+
+set -e
+
+JAR="$1"
+URL_PATH="${2:-/api/tasks/export?from=2000-01-01T00:00:00&to=2100-01-01T00:00:00}"
+CONCURRENCY="${3:-1000}"
+REQUESTS="${4:-50000}"
+PORT=18080
+
+if [ -z "$JAR" ]; then
+  echo "Usage: $0 <app.jar> [path] [concurrency] [requests]"
+  exit 1
+fi
+
+# Fails if hey saw any response outside 2xx, so errors are never measured as throughput
+check_status() {
+  local report="$1"
+  local bad
+  bad=$(echo "$report" | grep -E "^\s*\[[0-9]+\]" | grep -vE "^\s*\[2[0-9][0-9]\]" || true)
+  if [ -n "$bad" ] || echo "$report" | grep -q "^Error distribution:"; then
+    echo "Non-2xx responses or errors from $URL_PATH:" >&2
+    echo "$report" | sed -n '/Status code distribution:/,$p' >&2
+    return 1
+  fi
+}
+
+run_mode() {
+  local virtual="$1"
+  java -jar "$JAR" --server.port=$PORT --spring.threads.virtual.enabled="$virtual" > "benchmark-app-$virtual.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null" EXIT
+
+  # Wait for the application to come up
+  for i in $(seq 1 60); do
+    curl -s -o /dev/null "http://localhost:$PORT/actuator/health" && break
+    sleep 1
+  done
+
+  local status
+  status=$(curl -s -o /dev/null -w "%{http_code}" "http://localhost:$PORT$URL_PATH")
+  if [[ "$status" != 2* ]]; then
+    echo "GET $URL_PATH returned $status; pass a path the application serves" >&2
+    exit 1
+  fi
+
+  # Warm up, then measure
+  local report
+  report=$(hey -n 2000 -c 50 "http://localhost:$PORT$URL_PATH")
+  check_status "$report"
+  echo "== spring.threads.virtual.enabled=$virtual, concurrency=$CONCURRENCY"
+  report=$(hey -n "$REQUESTS" -c "$CONCURRENCY" "http://localhost:$PORT$URL_PATH")
+  check_status "$report"
+  echo "$report" | grep -E "Requests/sec|Average|99%|\[[0-9]+\]"
+
+  kill $pid
+  wait $pid 2>/dev/null || true
+  trap - EXIT
+}
+
+run_mode false
+run_mode true
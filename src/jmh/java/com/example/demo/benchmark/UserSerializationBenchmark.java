@@ -0,0 +1,51 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.User;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the User list returned by GET /api/users
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<User> users;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User("User " + i, "user" + i + "@example.com");
+            user.setId((long) i);
+            user.setVersion(0L);
+            users.add(user);
+        }
+        json = objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws Exception {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<User> deserializeUsers() throws Exception {
+        return objectMapper.readValue(json, new TypeReference<List<User>>() { });
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.model.User;
+import com.example.demo.model.UserPage;
+import com.example.demo.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserService CRUD against the embedded H2 database, through the full Spring/JPA stack
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final int SEEDED_USERS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private List<Long> ids;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        userService = context.getBean(UserService.class);
+
+        List<User> users = new ArrayList<>(SEEDED_USERS);
+        for (int i = 0; i < SEEDED_USERS; i++) {
+            users.add(new User("User " + i, "user" + i + "@example.com"));
+        }
+        ids = new ArrayList<>(SEEDED_USERS);
+        for (User user : userService.saveUsers(users)) {
+            ids.add(user.getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public Optional<User> getUserById() {
+        return userService.getUserById(randomId());
+    }
+
+    @Benchmark
+    public Optional<User> getUserByEmail() {
+        return userService.getUserByEmail("user" + ThreadLocalRandom.current().nextInt(SEEDED_USERS) + "@example.com");
+    }
+
+    @Benchmark
+    public UserPage getUserPage() {
+        return userService.getUserPage(randomId(), 100);
+    }
+
+    @Benchmark
+    public Optional<User> updateUser() {
+        Long id = randomId();
+        User changes = new User("Renamed", "renamed" + sequence.incrementAndGet() + "@example.com");
+        changes.setVersion(userService.getUserById(id).get().getVersion());
+        return userService.updateUser(id, changes);
+    }
+
+    @Benchmark
+    public boolean createAndDeleteUser() {
+        User user = userService.saveUser(new User("Temp", "temp" + sequence.incrementAndGet() + "@example.com"));
+        return userService.deleteUser(user.getId());
+    }
+}
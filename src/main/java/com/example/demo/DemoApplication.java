@@ -2,12 +2,14 @@ package com.example.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 /**
  * Main Spring Boot Application class
  * This serves as the entry point for our Java application
  */
 @SpringBootApplication
+@EnableCaching
 public class DemoApplication {
 
     public static void main(String[] args) {
@@ -1,13 +1,28 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.User;
+import com.example.demo.model.UserPage;
 import com.example.demo.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * REST controller for handling user-related operations
@@ -17,10 +32,12 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -28,6 +45,40 @@ public class UserController {
         return new ResponseEntity<>(userService.getAllUsers(), HttpStatus.OK);
     }
 
+    /**
+     * Keyset pagination: pass the previous page's nextCursor as "after"
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<UserPage> getUserPage(@RequestParam(required = false) Long after,
+                                                @RequestParam int limit) {
+        return new ResponseEntity<>(userService.getUserPage(after, limit), HttpStatus.OK);
+    }
+
+    /**
+     * Streams every user as newline-delimited JSON straight off the database cursor
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        ObjectWriter writer = objectMapper.writerFor(User.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                userService.streamAllUsers(user -> {
+                    try {
+                        writer.writeValue(generator, user);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
@@ -35,29 +86,91 @@ public class UserController {
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @GetMapping("/by-email")
+    public ResponseEntity<User> getUserByEmail(@RequestParam String email) {
+        return userService.getUserByEmail(email)
+                .map(user -> new ResponseEntity<>(user, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Existence check for dedup flows: 200 if the email is taken, 404 otherwise, no body
+     */
+    @RequestMapping(value = "/by-email", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> checkEmailExists(@RequestParam String email) {
+        return new ResponseEntity<>(userService.emailExists(email) ? HttpStatus.OK : HttpStatus.NOT_FOUND);
+    }
+
     @PostMapping
     public ResponseEntity<User> createUser(@RequestBody User user) {
         return new ResponseEntity<>(userService.saveUser(user), HttpStatus.CREATED);
     }
 
+    /**
+     * Updates require the version the client read, so concurrent edits cannot silently
+     * overwrite each other: 428 without one, 409 if it is stale
+     */
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User user) {
-        return userService.getUserById(id)
-                .map(existingUser -> {
-                    existingUser.setName(user.getName());
-                    existingUser.setEmail(user.getEmail());
-                    return new ResponseEntity<>(userService.saveUser(existingUser), HttpStatus.OK);
-                })
-                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        if (user.getVersion() == null) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_REQUIRED);
+        }
+        try {
+            return userService.updateUser(id, user)
+                    .map(updated -> new ResponseEntity<>(updated, HttpStatus.OK))
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        return userService.getUserById(id)
-                .map(user -> {
-                    userService.deleteUser(id);
-                    return new ResponseEntity<Void>(HttpStatus.NO_CONTENT);
-                })
-                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        return userService.deleteUser(id)
+                ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<User>> createUsers(@RequestBody List<User> users) {
+        return new ResponseEntity<>(userService.saveUsers(users), HttpStatus.CREATED);
+    }
+
+    /**
+     * Changes that carry a version must still match it; if any is stale nothing is applied (409)
+     */
+    @PatchMapping("/batch")
+    public ResponseEntity<List<User>> updateUsers(@RequestBody List<User> users) {
+        try {
+            return new ResponseEntity<>(userService.updateUsers(users), HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<Map<String, Integer>> deleteUsers(@RequestBody List<Long> ids) {
+        int deleted = userService.deleteUsers(ids);
+        return new ResponseEntity<>(Collections.singletonMap("deleted", deleted), HttpStatus.OK);
+    }
+
+    /**
+     * Duplicate emails are rejected by the unique constraint (409); values that break any other
+     * constraint, such as an oversized field, are bad requests (400)
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Void> handleConstraintViolation(DataIntegrityViolationException e) {
+        return new ResponseEntity<>(isDuplicateEmail(e) ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST);
+    }
+
+    static boolean isDuplicateEmail(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                // Databases report the name decorated, e.g. H2's "PUBLIC.UK_USERS_EMAIL_INDEX_4 ON ..."
+                String name = ((ConstraintViolationException) cause).getConstraintName();
+                return name != null && name.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of users.
+ * nextCursor is the id to pass as "after" for the next page, or null on the last page.
+ */
+public class UserPage {
+
+    private final List<User> items;
+    private final Long nextCursor;
+
+    public UserPage(List<User> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<User> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -1,14 +1,74 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 /**
  * Repository interface for User entity
  * Spring Data JPA automatically provides implementation
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    // Custom query methods can be added here if needed
-}
\ No newline at end of file
+
+    /**
+     * Exact match on the normalized email; served by the unique index.
+     */
+    Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    /**
+     * Keyset page: the next users after the given id, in id order.
+     * Uses the primary key index instead of an OFFSET scan.
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Streams every user in id order over a JDBC cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<User> streamAllByOrderByIdAsc();
+
+    /**
+     * Deletes the given users in a single statement without loading them first.
+     */
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Optimistic single-statement update; matches only when the stored version is unchanged.
+     * Clears the persistence context so a following read sees the new row.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.name = :name, u.email = :email, u.version = u.version + 1 "
+            + "where u.id = :id and u.version = :version")
+    int updateNameAndEmailIfVersion(@Param("id") Long id, @Param("version") Long version,
+                                    @Param("name") String name, @Param("email") String email);
+
+    /**
+     * Single-statement delete; returns the number of rows removed.
+     */
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteRowById(@Param("id") Long id);
+}
@@ -1,12 +1,26 @@
 package com.example.demo.service;
 
 import com.example.demo.model.User;
+import com.example.demo.model.UserPage;
 import com.example.demo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service class for business logic related to User entities
@@ -14,11 +28,22 @@ import java.util.Optional;
 @Service
 public class UserService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final String USER_CACHE = "users";
+    public static final int JDBC_BATCH_SIZE = 50;
+    private static final int ID_CHUNK_SIZE = 1000;
+
     private final UserRepository userRepository;
+    // Holds detached copies; puts and evictions inside a transaction apply after it commits
+    private final Cache userCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.userCache = new TransactionAwareCacheDecorator(cacheManager.getCache(USER_CACHE));
     }
 
     /**
@@ -29,23 +54,172 @@ public class UserService {
     }
 
     /**
-     * Find a specific user by ID
+     * Retrieve one keyset page of users with ids greater than afterId
+     */
+    public UserPage getUserPage(Long afterId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId == null ? 0L : afterId, PageRequest.of(0, size));
+        Long nextCursor = users.size() == size ? users.get(users.size() - 1).getId() : null;
+        return new UserPage(users, nextCursor);
+    }
+
+    /**
+     * Hand every user to the consumer in id order, one row at a time.
+     * Each entity is detached once consumed so the persistence context stays empty.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<User> consumer) {
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    /**
+     * Find a specific user by ID, served from the user cache when present.
+     * Every caller gets its own copy, so changing a returned user never changes the cached one.
      */
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        User cached = userCache.get(id, User.class);
+        if (cached != null) {
+            return Optional.of(new User(cached));
+        }
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresent(found -> userCache.put(id, new User(found)));
+        return user;
+    }
+
+    /**
+     * Find a user by email, ignoring case and surrounding whitespace
+     */
+    public Optional<User> getUserByEmail(String email) {
+        return userRepository.findByEmail(User.normalizeEmail(email));
+    }
+
+    /**
+     * Check whether a user with this email exists without loading it
+     */
+    public boolean emailExists(String email) {
+        return userRepository.existsByEmail(User.normalizeEmail(email));
     }
 
     /**
-     * Save a new or existing user
+     * Save a new or existing user and write it through to the user cache
      */
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.put(saved.getId(), new User(saved));
+        return saved;
+    }
+
+    /**
+     * Update a user's name and email in one UPDATE statement, applied only if the stored version
+     * still matches the one the changes were based on; a mismatch on an existing user raises
+     * ObjectOptimisticLockingFailureException.
+     * A successful update is not read back: the result is built from the changes and the next version.
+     * @return the user as stored after the update, or empty if there is no such user
+     * @throws IllegalArgumentException if the changes carry no version
+     */
+    @Transactional
+    public Optional<User> updateUser(Long id, User changes) {
+        if (changes.getVersion() == null) {
+            throw new IllegalArgumentException("an update must carry the version it was based on");
+        }
+        userCache.evict(id);
+        if (userRepository.updateNameAndEmailIfVersion(id, changes.getVersion(), changes.getName(), changes.getEmail()) == 0) {
+            // Only the failure path pays for a second statement to tell "gone" from "stale"
+            if (userRepository.existsById(id)) {
+                throw new ObjectOptimisticLockingFailureException(User.class, id);
+            }
+            return Optional.empty();
+        }
+        User updated = new User(changes.getName(), changes.getEmail());
+        updated.setId(id);
+        updated.setVersion(changes.getVersion() + 1);
+        return Optional.of(updated);
+    }
+
+    /**
+     * Delete a user by ID in one statement and evict it from the user cache
+     * @return true if a row was deleted
+     */
+    @Transactional
+    public boolean deleteUser(Long id) {
+        userCache.evict(id);
+        return userRepository.deleteRowById(id) > 0;
+    }
+
+    /**
+     * Insert new users in JDBC batches, clearing the persistence context between batches
+     */
+    @Transactional
+    public List<User> saveUsers(List<User> users) {
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            user.setId(null);
+            entityManager.persist(user);
+            if ((i + 1) % JDBC_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Apply name/email changes to existing users; unknown ids are skipped and fields left
+     * out of a change keep their stored values.
+     * A change that carries a version is only applied to that version; if any row has moved on,
+     * the whole batch is rolled back with ObjectOptimisticLockingFailureException.
+     * Rows are loaded per id chunk and written back as batched versioned UPDATEs.
+     */
+    @Transactional
+    public List<User> updateUsers(List<User> changes) {
+        Map<Long, User> changesById = new LinkedHashMap<>();
+        for (User change : changes) {
+            if (change.getId() != null) {
+                changesById.put(change.getId(), change);
+                userCache.evict(change.getId());
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(changesById.keySet());
+        List<User> updated = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            for (User existing : userRepository.findAllById(chunk)) {
+                User change = changesById.get(existing.getId());
+                if (change.getVersion() != null && !change.getVersion().equals(existing.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(User.class, existing.getId());
+                }
+                if (change.getName() != null) {
+                    existing.setName(change.getName());
+                }
+                if (change.getEmail() != null) {
+                    existing.setEmail(change.getEmail());
+                }
+                updated.add(existing);
+            }
+            // Through the repository so a row changed since it was loaded surfaces as a Spring lock failure
+            userRepository.flush();
+            entityManager.clear();
+        }
+        return updated;
     }
 
     /**
-     * Delete a user by ID
+     * Delete users by id without loading them, returning the number of rows removed
      */
-    public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+    @Transactional
+    public int deleteUsers(List<Long> ids) {
+        ids.forEach(userCache::evict);
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            deleted += userRepository.deleteByIdIn(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())));
+        }
+        return deleted;
     }
-}
\ No newline at end of file
+}
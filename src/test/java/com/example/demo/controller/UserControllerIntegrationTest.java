@@ -0,0 +1,111 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for UserController against the embedded database
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setup() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testStreamUsers_OneJsonObjectPerLineInIdOrder() throws Exception {
+        // Arrange: more rows than the cursor fetch size of 500
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1234; i++) {
+            users.add(new User("User " + i, "stream" + i + "@example.com"));
+        }
+        userService.saveUsers(users);
+
+        // Act
+        MvcResult started = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(1234, lines.length);
+        long previousId = Long.MIN_VALUE;
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            assertTrue(node.isObject(), line);
+            long id = node.get("id").asLong();
+            assertTrue(id > previousId, "ids out of order at " + line);
+            previousId = id;
+        }
+    }
+
+    private void postUser(String name, String email, int expectedStatus) throws Exception {
+        String json = objectMapper.writeValueAsString(new User(name, email));
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().is(expectedStatus));
+    }
+
+    @Test
+    public void testCreateUser_DuplicateEmailDifferingInCaseOrWhitespaceConflicts() throws Exception {
+        // Arrange
+        postUser("John Doe", "john@example.com", 201);
+
+        // Act / Assert
+        postUser("Johnny", "JOHN@Example.COM", 409);
+        postUser("Johnny", "  john@example.com\t", 409);
+        mockMvc.perform(head("/api/users/by-email").param("email", " John@EXAMPLE.com "))
+                .andExpect(status().isOk());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    public void testCreateUser_OtherConstraintViolationIsBadRequest() throws Exception {
+        // Act / Assert: the name column holds 255 characters
+        postUser("x".repeat(300), "long@example.com", 400);
+        assertEquals(0, userRepository.count());
+    }
+}
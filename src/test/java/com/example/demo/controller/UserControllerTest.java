@@ -1,17 +1,20 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.User;
+import com.example.demo.model.UserPage;
 import com.example.demo.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -79,4 +82,109 @@ public class UserControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         verify(userService, times(1)).getUserById(999L);
     }
+
+    @Test
+    public void testGetUserPage() {
+        // Arrange
+        UserPage page = new UserPage(Arrays.asList(testUser), 1L);
+        when(userService.getUserPage(null, 1)).thenReturn(page);
+
+        // Act
+        ResponseEntity<UserPage> response = userController.getUserPage(null, 1);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1L, response.getBody().getNextCursor());
+        verify(userService, times(1)).getUserPage(null, 1);
+    }
+
+    @Test
+    public void testDeleteUsersBatch() {
+        // Arrange
+        List<Long> ids = Arrays.asList(1L, 2L, 3L);
+        when(userService.deleteUsers(ids)).thenReturn(2);
+
+        // Act
+        ResponseEntity<Map<String, Integer>> response = userController.deleteUsers(ids);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().get("deleted"));
+        verify(userService, times(1)).deleteUsers(ids);
+    }
+
+    @Test
+    public void testUpdateUser_StaleVersion() {
+        // Arrange
+        User changes = new User("Jane Doe", "jane@example.com");
+        changes.setVersion(0L);
+        when(userService.updateUser(1L, changes))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        // Act
+        ResponseEntity<User> response = userController.updateUser(1L, changes);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        verify(userService, times(1)).updateUser(1L, changes);
+    }
+
+    @Test
+    public void testUpdateUsersBatch_StaleVersion() {
+        // Arrange
+        User change = new User("Jane Doe", "jane@example.com");
+        change.setId(1L);
+        change.setVersion(0L);
+        List<User> changes = Arrays.asList(change);
+        when(userService.updateUsers(changes))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        // Act
+        ResponseEntity<List<User>> response = userController.updateUsers(changes);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        verify(userService, times(1)).updateUsers(changes);
+    }
+
+    @Test
+    public void testUpdateUser_MissingVersion() {
+        // Arrange
+        User changes = new User("Jane Doe", "jane@example.com");
+
+        // Act
+        ResponseEntity<User> response = userController.updateUser(1L, changes);
+
+        // Assert
+        assertEquals(HttpStatus.PRECONDITION_REQUIRED, response.getStatusCode());
+        verify(userService, never()).updateUser(anyLong(), any());
+    }
+
+    @Test
+    public void testDeleteUser_NotFound() {
+        // Arrange
+        when(userService.deleteUser(999L)).thenReturn(false);
+
+        // Act
+        ResponseEntity<Void> response = userController.deleteUser(999L);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(userService, times(1)).deleteUser(999L);
+        verify(userService, never()).getUserById(anyLong());
+    }
+
+    @Test
+    public void testGetUserByEmail_Found() {
+        // Arrange
+        when(userService.getUserByEmail("John@Example.com")).thenReturn(Optional.of(testUser));
+
+        // Act
+        ResponseEntity<User> response = userController.getUserByEmail("John@Example.com");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("john@example.com", response.getBody().getEmail());
+        verify(userService, times(1)).getUserByEmail("John@Example.com");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for UserService against the embedded database and the user cache
+ */
+@SpringBootTest
+public class UserServiceIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        userRepository.deleteAllInBatch();
+        cacheManager.getCache(UserService.USER_CACHE).clear();
+    }
+
+    // Changes the row without going through the service, so only a cache miss can see it
+    private void renameBehindCache(Long id, String name) {
+        jdbcTemplate.update("update users set name = ? where id = ?", name, id);
+    }
+
+    private String nameOf(Long id) {
+        return userService.getUserById(id).map(User::getName).orElse(null);
+    }
+
+    @Test
+    public void testGetUserById_RepeatedReadSkipsRepository() {
+        // Arrange
+        Long id = userRepository.save(new User("John Doe", "john@example.com")).getId();
+        User first = userService.getUserById(id).get();
+
+        // Act
+        renameBehindCache(id, "Changed In Database");
+        User second = userService.getUserById(id).get();
+
+        // Assert
+        assertEquals("John Doe", second.getName());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testGetUserById_MutatingResultDoesNotChangeCache() {
+        // Arrange
+        Long id = userRepository.save(new User("John Doe", "john@example.com")).getId();
+        userService.getUserById(id).get().setName("Mutated By Caller");
+
+        // Act
+        User cached = userService.getUserById(id).get();
+        cached.setName("Mutated Again");
+
+        // Assert
+        assertEquals("John Doe", nameOf(id));
+    }
+
+    @Test
+    public void testSaveUser_WritesThroughToCache() {
+        // Arrange
+        User user = userService.saveUser(new User("John Doe", "john@example.com"));
+        userService.getUserById(user.getId());
+
+        // Act
+        user.setName("Saved Name");
+        userService.saveUser(user);
+        renameBehindCache(user.getId(), "Changed In Database");
+
+        // Assert
+        assertEquals("Saved Name", nameOf(user.getId()));
+    }
+
+    @Test
+    public void testUpdateAndDeleteUser_EvictEntry() {
+        // Arrange
+        User user = userRepository.save(new User("John Doe", "john@example.com"));
+        userService.getUserById(user.getId());
+
+        // Act
+        User changes = new User("Jane Doe", "jane@example.com");
+        changes.setVersion(user.getVersion());
+        userService.updateUser(user.getId(), changes);
+        String afterUpdate = nameOf(user.getId());
+        userService.deleteUser(user.getId());
+
+        // Assert
+        assertEquals("Jane Doe", afterUpdate);
+        assertFalse(userService.getUserById(user.getId()).isPresent());
+    }
+
+    @Test
+    public void testBatchUpdateAndDelete_EvictEntries() {
+        // Arrange
+        User first = userRepository.save(new User("First", "first@example.com"));
+        User second = userRepository.save(new User("Second", "second@example.com"));
+        userService.getUserById(first.getId());
+        userService.getUserById(second.getId());
+
+        // Act
+        User change = new User("First Renamed", "first@example.com");
+        change.setId(first.getId());
+        userService.updateUsers(Collections.singletonList(change));
+        String afterUpdate = nameOf(first.getId());
+        userService.deleteUsers(Arrays.asList(first.getId(), second.getId()));
+
+        // Assert
+        assertEquals("First Renamed", afterUpdate);
+        assertFalse(userService.getUserById(first.getId()).isPresent());
+        assertFalse(userService.getUserById(second.getId()).isPresent());
+    }
+
+    @Test
+    public void testUpdateUsers_OmittedFieldsKeepStoredValues() {
+        // Arrange
+        User first = userRepository.save(new User("First", "first@example.com"));
+        User second = userRepository.save(new User("Second", "second@example.com"));
+        User nameOnly = new User();
+        nameOnly.setId(first.getId());
+        nameOnly.setName("First Renamed");
+        User emailOnly = new User();
+        emailOnly.setId(second.getId());
+        emailOnly.setEmail("Second.New@Example.com");
+
+        // Act
+        userService.updateUsers(Arrays.asList(nameOnly, emailOnly));
+
+        // Assert
+        User storedFirst = userRepository.findById(first.getId()).get();
+        User storedSecond = userRepository.findById(second.getId()).get();
+        assertEquals("First Renamed", storedFirst.getName());
+        assertEquals("first@example.com", storedFirst.getEmail());
+        assertEquals("Second", storedSecond.getName());
+        assertEquals("second.new@example.com", storedSecond.getEmail());
+    }
+
+    @Test
+    public void testUpdateUsers_StaleVersionRejectsWholeBatch() {
+        // Arrange
+        User first = userRepository.save(new User("First", "first@example.com"));
+        User second = userRepository.save(new User("Second", "second@example.com"));
+        User current = new User();
+        current.setId(first.getId());
+        current.setVersion(first.getVersion());
+        current.setName("First Renamed");
+        User stale = new User();
+        stale.setId(second.getId());
+        stale.setVersion(second.getVersion());
+        stale.setName("Second Renamed");
+        // Someone else updates the second user after the client read it
+        User concurrent = new User("Second Elsewhere", "second@example.com");
+        concurrent.setVersion(second.getVersion());
+        userService.updateUser(second.getId(), concurrent);
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> userService.updateUsers(Arrays.asList(current, stale)));
+        assertEquals("First", userRepository.findById(first.getId()).get().getName());
+        assertEquals("Second Elsewhere", userRepository.findById(second.getId()).get().getName());
+
+        // The same change based on the current version goes through
+        stale.setVersion(second.getVersion() + 1);
+        userService.updateUsers(Arrays.asList(current, stale));
+        assertEquals("First Renamed", userRepository.findById(first.getId()).get().getName());
+        assertEquals("Second Renamed", userRepository.findById(second.getId()).get().getName());
+    }
+
+    @Test
+    public void testUpdateUser_ReturnsStoredRowAndRejectsStaleOrMissingVersion() {
+        // Arrange
+        User user = userRepository.save(new User("John Doe", "john@example.com"));
+        User changes = new User("Jane Doe", " Jane@Example.com ");
+        changes.setVersion(user.getVersion());
+
+        // Act
+        User updated = userService.updateUser(user.getId(), changes).get();
+
+        // Assert
+        User stored = userRepository.findById(user.getId()).get();
+        assertEquals(user.getId(), updated.getId());
+        assertEquals(user.getVersion() + 1, updated.getVersion());
+        assertEquals("Jane Doe", updated.getName());
+        assertEquals("jane@example.com", updated.getEmail());
+        assertEquals(stored.getVersion(), updated.getVersion());
+        assertEquals(stored.getName(), updated.getName());
+        assertEquals(stored.getEmail(), updated.getEmail());
+        // The first update consumed this version
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> userService.updateUser(user.getId(), changes));
+        changes.setVersion(null);
+        assertThrows(IllegalArgumentException.class, () -> userService.updateUser(user.getId(), changes));
+        assertEquals("Jane Doe", nameOf(user.getId()));
+    }
+}